@@ -0,0 +1,75 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.LogManager;
+import org.lldProblems.loggingframework.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many producers on one processor. The queues are bounded, so once the consumer is the
+ * bottleneck the numbers show how each processor behaves under back-pressure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentionBenchmark {
+
+    @Param({"async", "ringBuffer", "garbageFree", "pipeline"})
+    public String processor;
+
+    private Logger logger;
+    private Object requestId = 1234;
+
+    @Setup
+    public void setUp() {
+        Processors.install(processor);
+        logger = LogManager.getInstance().getLogger("bench.contention");
+        logger.setAdditivity(false);
+        logger.addAppender(new NullAppender());
+    }
+
+    @TearDown
+    public void tearDown() {
+        LogManager.getInstance().shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        logger.info("request {} handled", requestId);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void threads04() {
+        logger.info("request {} handled", requestId);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16() {
+        logger.info("request {} handled", requestId);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64() {
+        logger.info("request {} handled", requestId);
+    }
+}
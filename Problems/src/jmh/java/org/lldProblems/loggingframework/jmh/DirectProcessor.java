@@ -0,0 +1,23 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.LogProcessor;
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+
+/**
+ * Runs the appenders on the logging thread. Synchronous baseline for the async processors.
+ */
+public class DirectProcessor implements LogProcessor {
+
+    @Override
+    public void process(LogMessage message, LogAppender[] appenders) {
+        for (LogAppender appender : appenders) {
+            appender.append(message);
+            appender.flush();
+        }
+    }
+
+    @Override
+    public void stop() {
+    }
+}
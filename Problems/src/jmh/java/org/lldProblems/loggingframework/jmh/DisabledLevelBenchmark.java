@@ -0,0 +1,74 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.LogManager;
+import org.lldProblems.loggingframework.Logger;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a call below the logger's level. Should be a volatile read and a compare,
+ * with no allocation in any variant except the capturing supplier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisabledLevelBenchmark {
+
+    private Logger logger;
+    private Object value = 42;
+
+    @Setup
+    public void setUp() {
+        logger = LogManager.getInstance().getLogger("bench.disabled");
+        logger.setAdditivity(false);
+        logger.addAppender(new NullAppender());
+        logger.setLevel(LogLevel.WARN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        LogManager.getInstance().shutdown();
+    }
+
+    @Benchmark
+    public void plainMessage() {
+        logger.debug("disabled message");
+    }
+
+    @Benchmark
+    public void oneArgument() {
+        logger.debug("disabled message {}", value);
+    }
+
+    @Benchmark
+    public void varargs() {
+        logger.debug("disabled message {} {} {} {}", value, value, value, value);
+    }
+
+    @Benchmark
+    public void supplier() {
+        logger.debug(() -> "disabled message " + value);
+    }
+
+    @Benchmark
+    public void guarded() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("disabled message " + value);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.appender.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Records per second written to a file in a temporary directory. {@code batchSize} is the
+ * number of appends between two flushes, i.e. the size of an async batch. Every iteration
+ * starts a new file so a run does not fill the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileAppenderBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    private Path directory;
+    private FileAppender appender;
+    private LogMessage message;
+    private int pending;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-appender-bench");
+        message = new LogMessage(LogLevel.INFO, "com.example.orders.OrderService",
+                "request {} took {} ms", new Object[]{1234, 17L}, null);
+    }
+
+    @Setup(Level.Iteration)
+    public void openFile() {
+        appender = FileAppender.builder(directory.resolve("bench.log").toString()).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteFile() throws IOException {
+        appender.close();
+        Files.deleteIfExists(directory.resolve("bench.log"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        appender.append(message);
+        if (++pending == batchSize) {
+            appender.flush();
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.formatter.JsonFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting one record, against the original {@code String.format} formatter, and the
+ * JSON formatter against the text one. The event is refilled before every call so the
+ * message is rendered each time, as in production.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatterBenchmark {
+
+    private final LogFormatter baseline = new StringFormatFormatter();
+    private final SimpleTextFormatter formatter = new SimpleTextFormatter();
+    private final JsonFormatter json = new JsonFormatter();
+    private final LogMessage message = new LogMessage();
+    private final StringBuilder builder = new StringBuilder(256);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(8 * 1024);
+    private Object requestId = 1234;
+    private Object latency = 17L;
+
+    @Setup
+    public void setUp() {
+        refill();
+    }
+
+    private LogMessage refill() {
+        message.populate(System.currentTimeMillis() * 1000, LogLevel.INFO, "com.example.orders.OrderService",
+                "request {} took {} ms", null, null);
+        message.addArgument(requestId);
+        message.addArgument(latency);
+        return message;
+    }
+
+    @Benchmark
+    public String stringFormatBaseline() {
+        return baseline.format(refill());
+    }
+
+    @Benchmark
+    public String simpleTextToString() {
+        return formatter.format(refill());
+    }
+
+    @Benchmark
+    public int simpleTextToStringBuilder() {
+        builder.setLength(0);
+        formatter.format(refill(), builder);
+        return builder.length();
+    }
+
+    @Benchmark
+    public int simpleTextToByteBuffer() {
+        buffer.clear();
+        formatter.format(refill(), buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int jsonToByteBuffer() {
+        buffer.clear();
+        json.format(refill(), buffer);
+        return buffer.position();
+    }
+}
@@ -0,0 +1,61 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.LogManager;
+import org.lldProblems.loggingframework.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enabled calls from one thread, synchronous ({@code direct}) against the async processors.
+ * Sample mode reports the call latency percentiles, including the p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerThroughputBenchmark {
+
+    @Param({"direct", "async", "ringBuffer", "garbageFree"})
+    public String processor;
+
+    private Logger logger;
+    private Object requestId = 1234;
+    private Object latency = 17L;
+
+    @Setup
+    public void setUp() {
+        Processors.install(processor);
+        logger = LogManager.getInstance().getLogger("bench.throughput");
+        logger.setAdditivity(false);
+        logger.addAppender(new NullAppender());
+    }
+
+    @TearDown
+    public void tearDown() {
+        LogManager.getInstance().shutdown();
+    }
+
+    @Benchmark
+    public void plainMessage() {
+        logger.info("request handled");
+    }
+
+    @Benchmark
+    public void twoArguments() {
+        logger.info("request {} took {} ms", requestId, latency);
+    }
+}
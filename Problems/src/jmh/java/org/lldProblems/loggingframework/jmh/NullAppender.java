@@ -0,0 +1,59 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Formats every record like a real appender but discards the bytes, so benchmarks
+ * measure the framework and not the terminal or the disk.
+ */
+public class NullAppender implements LogAppender {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+    private LogFormatter formatter = new SimpleTextFormatter();
+    private long bytes;
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        buffer.clear();
+        try {
+            formatter.format(logMessage, buffer);
+        } catch (BufferOverflowException e) {
+            // Oversized records are not part of any benchmark.
+        }
+        bytes += buffer.position();
+    }
+
+    @Override
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    @Override
+    public synchronized void appendEncoded(LogMessage logMessage, ByteBuffer record) {
+        bytes += record.remaining();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+
+    @Override
+    public void setFormater(LogFormatter formater) {
+        this.formatter = formater;
+    }
+}
@@ -0,0 +1,61 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.LogManager;
+import org.lldProblems.loggingframework.Logger;
+import org.lldProblems.loggingframework.strategies.wait.YieldingWaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight producers on the pipelined processor with a growing number of format workers.
+ * Once formatting is the bottleneck, throughput should follow the worker count up to the
+ * number of free cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PipelineBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int formatWorkers;
+
+    private Logger logger;
+    private Object requestId = 1234;
+    private Object user = "alice@example.com";
+    private Object latency = 17.25d;
+
+    @Setup
+    public void setUp() {
+        LogManager.getInstance().usePipeline(Processors.CAPACITY, formatWorkers, new YieldingWaitStrategy());
+        logger = LogManager.getInstance().getLogger("bench.pipeline");
+        logger.setAdditivity(false);
+        logger.addAppender(new NullAppender());
+    }
+
+    @TearDown
+    public void tearDown() {
+        LogManager.getInstance().shutdown();
+    }
+
+    @Benchmark
+    public void threeArguments() {
+        logger.info("request {} for {} took {} ms", requestId, user, latency);
+    }
+}
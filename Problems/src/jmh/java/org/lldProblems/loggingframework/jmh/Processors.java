@@ -0,0 +1,30 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.AsyncProcessor;
+import org.lldProblems.loggingframework.LogManager;
+import org.lldProblems.loggingframework.enums.OverflowPolicy;
+import org.lldProblems.loggingframework.strategies.wait.YieldingWaitStrategy;
+
+/**
+ * Installs the processor named by a benchmark {@code @Param}.
+ */
+final class Processors {
+
+    static final int CAPACITY = 8192;
+    static final int FORMAT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    private Processors() {
+    }
+
+    static void install(String name) {
+        LogManager manager = LogManager.getInstance();
+        switch (name) {
+            case "direct" -> manager.setProcessor(new DirectProcessor());
+            case "async" -> manager.setProcessor(new AsyncProcessor(CAPACITY, OverflowPolicy.BLOCK));
+            case "ringBuffer" -> manager.useRingBuffer(CAPACITY, new YieldingWaitStrategy());
+            case "garbageFree" -> manager.useGarbageFreeRingBuffer(CAPACITY, new YieldingWaitStrategy());
+            case "pipeline" -> manager.usePipeline(CAPACITY, FORMAT_WORKERS, new YieldingWaitStrategy());
+            default -> throw new IllegalArgumentException("Unknown processor: " + name);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.lldProblems.loggingframework.jmh;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The original {@code String.format} based SimpleTextFormatter, kept as the baseline
+ * for {@link FormatterBenchmark}.
+ */
+public class StringFormatFormatter implements LogFormatter {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    public String format(LogMessage logMessage){
+        return String.format("%s [%s] %s - %s: %s\n",
+                logMessage.getTimeStamp().format(DATE_TIME_FORMATTER),
+                logMessage.getThreadName(),
+                logMessage.getLoglevel(),
+                logMessage.getLoggerName(),
+                logMessage.getMessage());
+    }
+}
@@ -0,0 +1,72 @@
+package org.lldProblems.loggingframework;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write statistics of one appender, recorded by the processor's consumer thread.
+ */
+public final class AppenderMetrics {
+
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private final Log2Histogram writeLatency = new Log2Histogram();
+    private final Log2Histogram flushLatency = new Log2Histogram();
+
+    AppenderMetrics(String name) {
+        this.name = name;
+    }
+
+    void recordWrite(long nanos) {
+        writeLatency.record(nanos);
+    }
+
+    void recordFlush(long nanos) {
+        flushLatency.record(nanos);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void reset() {
+        errors.reset();
+        writeLatency.reset();
+        flushLatency.reset();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWriteCount() {
+        return writeLatency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getWriteLatencyP50Nanos() {
+        return writeLatency.percentile(50);
+    }
+
+    public long getWriteLatencyP99Nanos() {
+        return writeLatency.percentile(99);
+    }
+
+    public long getWriteLatencyMaxNanos() {
+        return writeLatency.getMax();
+    }
+
+    public long getFlushCount() {
+        return flushLatency.getCount();
+    }
+
+    public long getFlushLatencyP99Nanos() {
+        return flushLatency.percentile(99);
+    }
+
+    public long getFlushLatencyMaxNanos() {
+        return flushLatency.getMax();
+    }
+}
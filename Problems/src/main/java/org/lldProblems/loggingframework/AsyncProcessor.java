@@ -1,51 +1,338 @@
 package org.lldProblems.loggingframework;
 
 import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.enums.OverflowPolicy;
 import org.lldProblems.loggingframework.strategies.appender.LogAppender;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class AsyncProcessor {
-    private final ExecutorService executorService;
+/**
+ * Bounded queue drained by a single background thread. When the queue is full the
+ * configured {@link OverflowPolicy} decides what happens; every discarded event is
+ * counted per level and periodically reported to the appenders as a synthetic WARN.
+ * <p>
+ * Events are removed from the queue and written only under {@code dispatchLock}, by the
+ * consumer or, with {@link OverflowPolicy#SYNCHRONOUS}, by a caller that found the queue
+ * full. Appenders therefore see one thread at a time and every event in queue order. The
+ * consumer waits for events outside the lock and is woken by the producers.
+ */
+public class AsyncProcessor implements LogProcessor {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long DEFAULT_REPORT_INTERVAL_MILLIS = 1000;
+    private static final long STOP_TIMEOUT_MILLIS = 2000;
+    private static final long MAX_POLL_MILLIS = 100;
+    private static final long BLOCK_CHECK_MILLIS = 10;
+    private static final LogLevel[] LEVELS = LogLevel.values();
 
+    private final BlockingQueue<LogMessage> queue;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long reportIntervalMillis;
+    private final AtomicLongArray dropped = new AtomicLongArray(LEVELS.length);
+    private final Thread consumerThread;
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    // Created on first use: LogManager builds the default processor in its constructor.
+    private LoggingMetrics metrics;
+    private BatchDispatcher dispatcher;
+    private volatile boolean running = true;
+    private volatile LogProcessor successor;
+    private volatile boolean consumerWaiting;
 
     public AsyncProcessor() {
-        this.executorService = Executors.newSingleThreadExecutor(
-                runnable -> {
-                    Thread thread = new Thread(runnable, "AsyncLogProcessor");
-                    thread.setDaemon(true);
-                    return thread;
+        this(DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    public AsyncProcessor(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, DEFAULT_REPORT_INTERVAL_MILLIS);
+    }
+
+    public AsyncProcessor(int capacity, OverflowPolicy overflowPolicy, long reportIntervalMillis) {
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.reportIntervalMillis = reportIntervalMillis;
+        this.consumerThread = new Thread(this::consume, "AsyncLogProcessor");
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+    }
+
+    @Override
+    public void process(LogMessage message, LogAppender[] appenders){
+        if(!running){
+            rejected(message, appenders);
+            return;
+        }
+
+        // The event carries its appenders, so queueing it allocates nothing.
+        LogMessage event = message.setTargets(appenders);
+        if (queue.offer(event)) {
+            enqueued(event);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> put(event);
+            case DROP_NEWEST -> countDrop(message);
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) {
+                    LogMessage oldest = queue.poll();
+                    if (oldest != null) {
+                        countDrop(oldest);
+                    }
+                }
+            }
+            case DISCARD_BELOW_WARN -> {
+                if (!message.getLoglevel().isGreaterOrEqual(LogLevel.WARN)) {
+                    countDrop(message);
+                    return;
                 }
-        );
+                while (!queue.offer(event)) {
+                    if (!evictBelowWarn()) {
+                        put(event);
+                        return;
+                    }
+                }
+            }
+            case SYNCHRONOUS -> runOnCaller(event);
+        }
+        enqueued(event);
     }
 
-    public void process(LogMessage message, List<LogAppender> appenders){
-        if(executorService.isShutdown()){
+    /**
+     * stop() may have let the consumer exit between the {@code running} check and the offer,
+     * so an event still queued once it is stopped is taken back and handed on.
+     */
+    private void enqueued(LogMessage event) {
+        wakeConsumer();
+        if (!running && queue.remove(event)) {
+            rejected(event, event.getTargets());
+        }
+    }
+
+    /**
+     * Called for an event this processor did not accept because it is stopped.
+     */
+    private void rejected(LogMessage message, LogAppender[] appenders) {
+        LogProcessor next = successor;
+        if (next != null) {
+            next.process(message, appenders);
+        } else {
             System.out.println("Logger is shut down. Cannot process log message.");
-            return;
         }
+    }
+
+    private void wakeConsumer() {
+        if (consumerWaiting) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    /**
+     * Writes everything queued and then {@code event} on the calling thread, unless the
+     * consumer made room in the meantime.
+     */
+    private void runOnCaller(LogMessage event) {
+        List<LogMessage> batch = new ArrayList<>();
+        dispatchLock.lock();
+        try {
+            if (queue.offer(event)) {
+                return;
+            }
+            queue.drainTo(batch);
+            batch.add(event);
+            dispatchBatch(batch);
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Caller holds {@code dispatchLock}.
+     */
+    private void dispatchBatch(List<LogMessage> batch) {
+        BatchDispatcher dispatcher = dispatcher();
+        metrics.recordBatch(batch.size());
+        for (LogMessage queued : batch) {
+            dispatcher.dispatch(queued, queued.getTargets());
+        }
+        batch.clear();
+        dispatcher.endBatch();
+    }
+
+    /**
+     * Waits for space, but rechecks {@code running} so that a caller cannot wait forever
+     * on a consumer that stop() already ended.
+     */
+    private void put(LogMessage event) {
+        try {
+            while (!queue.offer(event, BLOCK_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    rejected(event, event.getTargets());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            countDrop(event);
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        executorService.submit(() ->{
-            for(LogAppender appender : appenders){
-                appender.append(message);
+    private boolean evictBelowWarn() {
+        Iterator<LogMessage> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            LogMessage queued = iterator.next();
+            if (!queued.getLoglevel().isGreaterOrEqual(LogLevel.WARN)) {
+                iterator.remove();
+                countDrop(queued);
+                return true;
             }
-        });
+        }
+        return false;
+    }
+
+    private void countDrop(LogMessage message) {
+        dropped.incrementAndGet(message.getLoglevel().ordinal());
+    }
+
+    private void consume() {
+        List<LogMessage> batch = new ArrayList<>();
+        long[] reported = new long[LEVELS.length];
+        long pollMillis = Math.min(reportIntervalMillis, MAX_POLL_MILLIS);
+        long nextReport = System.currentTimeMillis() + reportIntervalMillis;
+
+        // Interrupted by stop() when it gives up waiting; pending events are discarded.
+        while ((running || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            int drained;
+            dispatchLock.lock();
+            try {
+                drained = queue.drainTo(batch);
+                if (drained > 0) {
+                    dispatchBatch(batch);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextReport) {
+                    reportDrops(reported);
+                    nextReport = now + reportIntervalMillis;
+                }
+            } finally {
+                dispatchLock.unlock();
+            }
+            if (drained == 0) {
+                awaitEvent(pollMillis);
+            }
+        }
+        dispatchLock.lock();
+        try {
+            reportDrops(reported);
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Waits without taking the event, so events only leave the queue under the lock. The flag
+     * is set before the queue is checked, so a producer that queues after the check sees it.
+     */
+    private void awaitEvent(long timeoutMillis) {
+        consumerWaiting = true;
+        if (queue.isEmpty() && running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        }
+        consumerWaiting = false;
+    }
+
+    /**
+     * Caller holds {@code dispatchLock}.
+     */
+    private BatchDispatcher dispatcher() {
+        if (dispatcher == null) {
+            metrics = LogManager.getInstance().getMetrics();
+            dispatcher = new BatchDispatcher(metrics);
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Caller holds {@code dispatchLock}.
+     */
+    private void reportDrops(long[] reported) {
+        long total = 0;
+        StringBuilder perLevel = new StringBuilder();
+        for (LogLevel level : LEVELS) {
+            long current = dropped.get(level.ordinal());
+            long delta = current - reported[level.ordinal()];
+            reported[level.ordinal()] = current;
+            if (delta > 0) {
+                total += delta;
+                perLevel.append(perLevel.length() == 0 ? "" : ", ").append(level).append('=').append(delta);
+            }
+        }
+        BatchDispatcher dispatcher = dispatcher();
+        if (total == 0 || dispatcher.knownAppenders().isEmpty()) {
+            return;
+        }
+
+        LogMessage report = new LogMessage(LogLevel.WARN, AsyncProcessor.class.getSimpleName(),
+                total + " events dropped by " + overflowPolicy + " overflow policy (" + perLevel + ")");
+        dispatcher.dispatch(report, dispatcher.knownAppenders().toArray(new LogAppender[0]));
+        dispatcher.endBatch();
+    }
+
+    public long getDroppedCount(LogLevel level) {
+        return dropped.get(level.ordinal());
+    }
+
+    @Override
+    public long getDroppedCount() {
+        long total = 0;
+        for (LogLevel level : LEVELS) {
+            total += dropped.get(level.ordinal());
+        }
+        return total;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public void stop(LogProcessor successor) {
+        this.successor = successor;
+        stop();
     }
 
+    @Override
     public void stop(){
-        executorService.shutdown();
+        running = false;
+        LockSupport.unpark(consumerThread);
         try {
-            if (!executorService.awaitTermination(2, TimeUnit.SECONDS)) {
-                System.err.println("Logger executor did not terminate in the specified time.");
-                // Forcibly shut down any still-running tasks.
-                executorService.shutdownNow();
+            consumerThread.join(STOP_TIMEOUT_MILLIS);
+            if (consumerThread.isAlive()) {
+                System.err.println("Logger consumer did not terminate in the specified time.");
+                // Forcibly stop the consumer, pending events are discarded.
+                consumerThread.interrupt();
             }
         } catch (InterruptedException e) {
-            executorService.shutdownNow();
+            consumerThread.interrupt();
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
@@ -0,0 +1,79 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consumer-side helper shared by the processors: delivers events of one drained batch,
+ * then flushes every appender that took part in it, recording per-appender latency and
+ * errors. Not thread safe, owned by the consumer thread.
+ */
+class BatchDispatcher {
+
+    private final LoggingMetrics metrics;
+    private final List<LogAppender> touched = new ArrayList<>();
+    private final Set<LogAppender> known = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    BatchDispatcher(LoggingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    void dispatch(LogMessage message, LogAppender[] appenders) {
+        for (LogAppender appender : appenders) {
+            dispatch(message, appender, null);
+        }
+    }
+
+    /**
+     * Hands {@code appender} the pre-formatted {@code record}, or the event itself if there
+     * is none.
+     */
+    void dispatch(LogMessage message, LogAppender appender, ByteBuffer record) {
+        AppenderMetrics appenderMetrics = metrics.forAppender(appender);
+        long started = System.nanoTime();
+        try {
+            if (record == null) {
+                appender.append(message);
+            } else {
+                appender.appendEncoded(message, record);
+            }
+        } catch (RuntimeException e) {
+            appenderMetrics.recordError();
+            System.out.println("Appender failed to write log message, exception: " + e.getMessage());
+        }
+        appenderMetrics.recordWrite(System.nanoTime() - started);
+        if (!touched.contains(appender)) {
+            touched.add(appender);
+        }
+    }
+
+    void endBatch() {
+        for (LogAppender appender : touched) {
+            AppenderMetrics appenderMetrics = metrics.forAppender(appender);
+            long started = System.nanoTime();
+            try {
+                appender.flush();
+            } catch (RuntimeException e) {
+                appenderMetrics.recordError();
+                System.out.println("Appender failed to flush log batch, exception: " + e.getMessage());
+            }
+            appenderMetrics.recordFlush(System.nanoTime() - started);
+            known.add(appender);
+        }
+        touched.clear();
+    }
+
+    /**
+     * Every appender that has received at least one completed batch.
+     */
+    Set<LogAppender> knownAppenders() {
+        return known;
+    }
+}
@@ -0,0 +1,79 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+import org.lldProblems.loggingframework.strategies.wait.YieldingWaitStrategy;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes the logging thread allocates per call in garbage-free mode,
+ * using the HotSpot per-thread allocation counter. Fails if steady state allocates at all.
+ */
+public class GarbageFreeLoggingDemo {
+
+    private static final int WARMUP_EVENTS = 500_000;
+    private static final int MEASURED_EVENTS = 1_000_000;
+
+    public static void main(String[] args) {
+        LogManager logManager = LogManager.getInstance();
+        logManager.useGarbageFreeRingBuffer(4096, new YieldingWaitStrategy());
+
+        CountingAppender appender = new CountingAppender();
+        Logger logger = logManager.getLogger("com.example.GarbageFree");
+        logger.setLevel(LogLevel.INFO);
+        logger.addAppender(appender);
+
+        String user = "alice";
+        Integer orderId = 42;
+
+        for (int i = 0; i < WARMUP_EVENTS; i++) {
+            logger.info("order {} placed by {}", orderId, user);
+            logger.debug("filtered {}", user);
+        }
+
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_EVENTS; i++) {
+            logger.info("order {} placed by {}", orderId, user);
+            logger.debug("filtered {}", user);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        logManager.shutdown();
+        System.out.printf("Appended %d events, producer allocated %d bytes (%.3f bytes/event)%n",
+                appender.count, allocated, (double) allocated / MEASURED_EVENTS);
+        if (allocated > 0) {
+            throw new IllegalStateException("Garbage-free logging allocated " + allocated + " bytes in steady state");
+        }
+    }
+
+    private static class CountingAppender implements LogAppender {
+        private LogFormatter formatter = new SimpleTextFormatter();
+        private long count;
+
+        @Override
+        public void append(LogMessage logMessage) {
+            count++;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public LogFormatter getFormatter() {
+            return formatter;
+        }
+
+        @Override
+        public void setFormater(LogFormatter formater) {
+            this.formatter = formater;
+        }
+    }
+}
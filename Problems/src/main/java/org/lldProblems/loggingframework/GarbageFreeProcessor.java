@@ -0,0 +1,22 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+
+/**
+ * A processor that owns a preallocated event per slot. Loggers reserve a slot with
+ * {@link #claim()}, fill {@link #eventAt(long)} in place and hand it over with
+ * {@link #publish}, so no {@link LogMessage} is allocated per event.
+ */
+public interface GarbageFreeProcessor extends LogProcessor {
+
+    /**
+     * Returns the sequence of a reserved slot, or -1 if events are not reused right now; the
+     * caller then passes a fresh {@link LogMessage} to {@link #process} instead.
+     */
+    long claim();
+
+    LogMessage eventAt(long sequence);
+
+    void publish(long sequence, LogAppender[] appenders);
+}
@@ -1,57 +1,269 @@
 package org.lldProblems.loggingframework;
 
+import org.lldProblems.loggingframework.enums.LogLevel;
 import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.clock.LogClock;
+import org.lldProblems.loggingframework.strategies.clock.SystemClock;
+import org.lldProblems.loggingframework.strategies.wait.WaitStrategy;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LogManager {
     private static final LogManager INSTANCE = new LogManager();
+    private static final long FILTER_FLUSH_MILLIS = 1000;
 
-    private final Map<String,Logger> loggers = new ConcurrentHashMap<>();
-    private final Logger rootLogger;
-    private final AsyncProcessor processor;
+    private final LoggerRegistry registry = new LoggerRegistry();
+    private final ClassValue<Logger> classLoggers = new ClassValue<>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return getLogger(type.getName());
+        }
+    };
+    private volatile LogProcessor processor;
+    private volatile LogClock clock = new SystemClock();
+    private final AtomicLong configGeneration = new AtomicLong();
+    private final LoggingMetrics metrics = new LoggingMetrics(this);
+    private volatile CaptureSink[] captureSinks = new CaptureSink[0];
+    private volatile LogLevel captureLevel;
+    // Scopes open across all threads; zero keeps suppressed calls off the scope path.
+    private final AtomicInteger openScopes = new AtomicInteger();
+    private volatile int scopeCapacity = LogScope.DEFAULT_CAPACITY;
+    private ScheduledExecutorService filterFlusher;
 
     private LogManager() {
-        this.rootLogger = new Logger("root", null);
-        this.loggers.put("root", rootLogger);
         this.processor = new AsyncProcessor();
+        registerMetrics();
     }
     public static LogManager getInstance(){
         return INSTANCE;
     }
 
     public Logger getLogger(String name){
-        return loggers.computeIfAbsent(name, this::createLogger);
+        long generation = configGeneration.get();
+        Logger logger = registry.getOrCreate(name);
+        // A refresh pass may have run while the logger was being built and not seen it yet.
+        if(generation != configGeneration.get()){
+            logger.refreshCachedConfig();
+        }
+        return logger;
+    }
+
+    /**
+     * Logger named after the class. Cached per class, so repeated lookups skip the registry.
+     */
+    public Logger getLogger(Class<?> type){
+        return classLoggers.get(type);
+    }
+
+    /**
+     * Called after a logger's level, appenders or additivity changed. Configured loggers
+     * are kept even when the application holds no reference to them.
+     */
+    void loggerConfigured(Logger logger){
+        registry.pin(logger);
+        refreshSubtree(logger);
+    }
+
+    /**
+     * Rebuilds the cached effective level and appenders of {@code changed} and all of its
+     * descendants. Each pass bumps the generation; a pass that observes a newer generation
+     * when it finishes raced with another configuration change and repeats, so the last
+     * writer always wins.
+     */
+    void refreshSubtree(Logger changed){
+        long generation;
+        do {
+            generation = configGeneration.incrementAndGet();
+            registry.forEachInSubtree(changed, Logger::refreshCachedConfig);
+        } while (generation != configGeneration.get());
     }
 
-    private Logger createLogger(String name){
-        if(name.equals("root")){
-            return rootLogger;
+    private void registerMetrics() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(metrics, new ObjectName("org.lldProblems.loggingframework:type=LoggingMetrics"));
+        } catch (JMException e) {
+            System.out.println("Failed to register logging metrics MBean, exception: " + e.getMessage());
         }
-        int lastDot  = name.lastIndexOf('.');
-        String parentName = (lastDot == -1) ? "root" : name.substring(0, lastDot);
-        Logger parent = getLogger(parentName);
-        return new Logger(name,parent);
+    }
+
+    public LoggingMetrics getMetrics() {
+        return metrics;
     }
 
     public Logger getRootLogger() {
-        return rootLogger;
+        return registry.getRootLogger();
     }
 
-    AsyncProcessor getProcessor() {
+    LogProcessor getProcessor() {
         return processor;
     }
 
+    /**
+     * Swaps the processor used by every logger. The previous processor is stopped,
+     * which drains whatever it had already accepted, and forwards to the new one what
+     * loggers that still held it submit afterwards.
+     */
+    public synchronized void setProcessor(LogProcessor processor) {
+        LogProcessor previous = this.processor;
+        this.processor = processor;
+        previous.stop(processor);
+    }
+
+    public void useRingBuffer(int bufferSize, WaitStrategy waitStrategy) {
+        setProcessor(new RingBufferProcessor(bufferSize, waitStrategy));
+    }
+
+    /**
+     * Ring buffer whose slots are reused events. Loggers write straight into a slot, so
+     * logging allocates nothing once every thread has logged at least once.
+     */
+    public void useGarbageFreeRingBuffer(int bufferSize, WaitStrategy waitStrategy) {
+        setProcessor(new RingBufferProcessor(bufferSize, waitStrategy, true));
+    }
+
+    /**
+     * Ring buffer whose events are formatted by {@code formatWorkers} threads in parallel and
+     * written in order by one writer; see {@link PipelinedProcessor}.
+     */
+    public void usePipeline(int bufferSize, int formatWorkers, WaitStrategy waitStrategy) {
+        setProcessor(new PipelinedProcessor(bufferSize, formatWorkers, waitStrategy));
+    }
+
+    /**
+     * Registers {@code sink} to receive events from {@code level} up that loggers suppress
+     * because they are below the logger's effective level. Such events never reach the
+     * processor: the sink is called on the logging thread with a reused event, so it has to
+     * be fast, thread safe, must not log itself and must copy what it keeps.
+     * Enabled events reach a sink only if it is also attached to a logger.
+     */
+    public synchronized void addCaptureSink(LogAppender sink, LogLevel level) {
+        CaptureSink[] current = captureSinks;
+        CaptureSink[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new CaptureSink(sink, level);
+        updateCaptureSinks(updated);
+    }
+
+    public synchronized void removeCaptureSink(LogAppender sink) {
+        updateCaptureSinks(Arrays.stream(captureSinks)
+                .filter(registered -> registered.appender() != sink)
+                .toArray(CaptureSink[]::new));
+    }
+
+    private void updateCaptureSinks(CaptureSink[] updated) {
+        LogLevel lowest = null;
+        for (CaptureSink sink : updated) {
+            if (lowest == null || lowest.isGreaterOrEqual(sink.level())) {
+                lowest = sink.level();
+            }
+        }
+        this.captureSinks = updated;
+        this.captureLevel = lowest;
+        refreshSubtree(getRootLogger());
+    }
+
+    /**
+     * Opens a {@link LogScope} on the calling thread; use it with try-with-resources. While any
+     * thread has a scope open, calls below a logger's level also check for a scope on their
+     * own thread.
+     */
+    public LogScope openScope(String name) {
+        return LogScope.open(this, name, scopeCapacity);
+    }
+
+    /**
+     * Maximum number of events a scope buffers. Applies to threads that open their first
+     * scope after the change, or whose scope is not open.
+     */
+    public void setScopeCapacity(int scopeCapacity) {
+        if (scopeCapacity < 1) {
+            throw new IllegalArgumentException("scopeCapacity must be positive, got " + scopeCapacity);
+        }
+        this.scopeCapacity = scopeCapacity;
+    }
+
+    /**
+     * Starts the timer that has filters report dropped calls no later call reported, once the
+     * first filter is added.
+     */
+    synchronized void startFilterFlush() {
+        if (filterFlusher != null) {
+            return;
+        }
+        filterFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LogFilter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        filterFlusher.scheduleWithFixedDelay(this::flushFilters, FILTER_FLUSH_MILLIS, FILTER_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void flushFilters() {
+        registry.forEach(Logger::flushFilters);
+    }
+
+    boolean hasOpenScopes() {
+        return openScopes.get() > 0;
+    }
+
+    void scopeOpened() {
+        openScopes.incrementAndGet();
+    }
+
+    void scopeClosed() {
+        openScopes.decrementAndGet();
+    }
+
+    CaptureSink[] getCaptureSinks() {
+        return captureSinks;
+    }
+
+    LogLevel getCaptureLevel() {
+        return captureLevel;
+    }
+
+    LogClock getClock() {
+        return clock;
+    }
+
+    public void setClock(LogClock clock) {
+        this.clock = clock;
+    }
+
     public void shutdown() {
+        // Report what the filters still hold while the processor accepts events.
+        synchronized (this) {
+            if (filterFlusher != null) {
+                filterFlusher.shutdownNow();
+                filterFlusher = null;
+            }
+        }
+        flushFilters();
+
         // Stop the processor first to ensure all logs are written.
         processor.stop();
 
         // Then, close all appenders.
-        loggers.values().stream()
-                .flatMap(logger -> logger.getAppenders().stream())
-                .distinct()
-                .forEach(LogAppender::close);
+        Set<LogAppender> appenders = Collections.newSetFromMap(new IdentityHashMap<>());
+        registry.forEach(logger -> appenders.addAll(logger.getAppenders()));
+        for (CaptureSink sink : captureSinks) {
+            appenders.add(sink.appender());
+        }
+        appenders.forEach(LogAppender::close);
         System.out.println("Logging framework shut down gracefully.");
     }
+
+    record CaptureSink(LogAppender appender, LogLevel level) {
+    }
 }
@@ -0,0 +1,34 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+
+public interface LogProcessor {
+
+    void process(LogMessage message, LogAppender[] appenders);
+
+    /**
+     * Events accepted but not yet handed to the appenders.
+     */
+    default int getQueueSize() {
+        return 0;
+    }
+
+    /**
+     * Events discarded because the processor was full.
+     */
+    default long getDroppedCount() {
+        return 0;
+    }
+
+    void stop();
+
+    /**
+     * Stops like {@link #stop()}, but hands events submitted afterwards to {@code successor}
+     * instead of dropping them, so loggers that read this processor just before it was
+     * replaced still get their events written.
+     */
+    default void stop(LogProcessor successor) {
+        stop();
+    }
+}
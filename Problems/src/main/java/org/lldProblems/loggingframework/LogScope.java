@@ -0,0 +1,139 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+
+/**
+ * A unit of work on one thread, such as a request, opened with {@link LogManager#openScope}.
+ * <p>
+ * Events below the logger's effective level that are logged inside the scope are kept in a
+ * bounded buffer instead of being dropped. If the scope ends normally they are discarded. If an
+ * ERROR or FATAL is logged inside it, the buffered events are sent to their loggers' appenders
+ * in order, ahead of the error, and the rest of the scope logs those levels straight through.
+ * Once the buffer is full the oldest events are overwritten.
+ * <p>
+ * There is one instance per thread, reused for every scope that thread opens, and its buffer
+ * holds preallocated events, so opening a scope and buffering allocate nothing. Nested scopes
+ * on the same thread share the outer scope.
+ */
+public final class LogScope implements AutoCloseable {
+
+    static final int DEFAULT_CAPACITY = 256;
+    private static final ThreadLocal<LogScope> CURRENT = new ThreadLocal<>();
+
+    private final LogManager manager;
+    private final LogMessage[] buffered;
+    private int head;
+    private int size;
+    private long overwritten;
+    private String name;
+    private int depth;
+    private boolean failed;
+
+    private LogScope(LogManager manager, int capacity) {
+        this.manager = manager;
+        this.buffered = new LogMessage[capacity];
+        for (int i = 0; i < capacity; i++) {
+            buffered[i] = new LogMessage();
+        }
+    }
+
+    static LogScope open(LogManager manager, String name, int capacity) {
+        LogScope scope = CURRENT.get();
+        if (scope == null || (scope.depth == 0 && scope.buffered.length != capacity)) {
+            scope = new LogScope(manager, capacity);
+            CURRENT.set(scope);
+        }
+        if (scope.depth++ == 0) {
+            manager.scopeOpened();
+            scope.name = name;
+            scope.failed = false;
+            scope.overwritten = 0;
+        }
+        return scope;
+    }
+
+    /**
+     * The scope open on the calling thread, or null.
+     */
+    static LogScope current() {
+        LogScope scope = CURRENT.get();
+        return scope != null && scope.depth > 0 ? scope : null;
+    }
+
+    /**
+     * Receives an event below its logger's level, in the per-thread scratch instance.
+     */
+    void capture(LogMessage event) {
+        if (failed) {
+            LogMessage copy = new LogMessage().copyFrom(event);
+            manager.getProcessor().process(copy, appendersOf(copy));
+            return;
+        }
+        int index = (head + size) % buffered.length;
+        if (size == buffered.length) {
+            head = (head + 1) % buffered.length;
+            overwritten++;
+        } else {
+            size++;
+        }
+        buffered[index].copyFrom(event);
+    }
+
+    /**
+     * Sends the buffered events to the processor, oldest first, and switches the scope to
+     * pass-through. Called on the logging thread before an ERROR/FATAL inside the scope.
+     */
+    void failed() {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        LogProcessor processor = manager.getProcessor();
+        for (int i = 0; i < size; i++) {
+            LogMessage event = buffered[(head + i) % buffered.length];
+            LogMessage copy = new LogMessage().copyFrom(event);
+            processor.process(copy, appendersOf(copy));
+            event.clear();
+        }
+        head = 0;
+        size = 0;
+    }
+
+    private LogAppender[] appendersOf(LogMessage event) {
+        return manager.getLogger(event.getLoggerName()).getEffectiveAppenders();
+    }
+
+    @Override
+    public void close() {
+        if (depth == 0 || --depth > 0) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            buffered[(head + i) % buffered.length].clear();
+        }
+        head = 0;
+        size = 0;
+        name = null;
+        manager.scopeClosed();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBufferedCount() {
+        return size;
+    }
+
+    /**
+     * Events lost because the buffer was full, since the scope was opened.
+     */
+    public long getOverwrittenCount() {
+        return overwritten;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+}
@@ -3,116 +3,566 @@ package org.lldProblems.loggingframework;
 import org.lldProblems.loggingframework.enitties.LogMessage;
 import org.lldProblems.loggingframework.enums.LogLevel;
 import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.filter.LogFilter;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 
 public class Logger {
+    private static final LogAppender[] NO_APPENDERS = new LogAppender[0];
+    private static final LogFilter[] NO_FILTERS = new LogFilter[0];
+    private static final String SUPPRESSED_PATTERN = "Suppressed {} similar events ({}): {}";
+    private static final ThreadLocal<LogMessage> CAPTURE_EVENT = ThreadLocal.withInitial(LogMessage::new);
+
     private final String name;
-    private LogLevel level;
-    private final Logger parent;
+    private volatile LogLevel level;
+    private volatile LogLevel effectiveLevel;
+    private volatile LogLevel gateLevel;
+    private volatile Logger parent;
+    private final LoggerRegistry.Node node;
     private final List<LogAppender> appenders;
-    private boolean additivity =  true;
+    private volatile boolean additivity =  true;
+    private volatile LogAppender[] effectiveAppenders;
+    private final List<LogFilter> filters;
+    private volatile LogFilter[] effectiveFilters;
 
     public Logger(String name, Logger parent) {
+        this(name, parent, null);
+    }
+
+    Logger(String name, Logger parent, LoggerRegistry.Node node) {
         this.name = name;
         this.parent = parent;
+        this.node = node;
         this.appenders = new CopyOnWriteArrayList<>();
+        this.filters = new CopyOnWriteArrayList<>();
+        this.effectiveLevel = resolveEffectiveLevel();
+        this.effectiveAppenders = resolveEffectiveAppenders();
+        this.effectiveFilters = resolveEffectiveFilters();
+        this.gateLevel = resolveGateLevel();
     }
     
     public void addAppender(LogAppender appender){
         appenders.add(appender);
+        LogManager.getInstance().loggerConfigured(this);
     }
     
+    public void removeAppender(LogAppender appender){
+        appenders.remove(appender);
+        LogManager.getInstance().loggerConfigured(this);
+    }
+
+    /**
+     * Read-only: changes go through {@link #addAppender} and {@link #removeAppender}, which
+     * also rebuild the cached appenders of this logger and its descendants.
+     */
     public List<LogAppender> getAppenders(){
-        return appenders;
+        return Collections.unmodifiableList(appenders);
     }
     
+    /**
+     * Filters run in order on enabled calls, own filters before inherited ones, and apply to
+     * this logger and every logger below it.
+     */
+    public void addFilter(LogFilter filter){
+        filters.add(filter);
+        LogManager manager = LogManager.getInstance();
+        manager.loggerConfigured(this);
+        manager.startFilterFlush();
+    }
+
+    public void removeFilter(LogFilter filter){
+        filters.remove(filter);
+        LogManager.getInstance().loggerConfigured(this);
+    }
+
+    /**
+     * Read-only, like {@link #getAppenders()}.
+     */
+    public List<LogFilter> getFilters(){
+        return Collections.unmodifiableList(filters);
+    }
+
     public void setLevel(LogLevel level){
         this.level=level;
+        LogManager.getInstance().loggerConfigured(this);
     }
     
-    private void setAdditivity(boolean additivity){
+    public void setAdditivity(boolean additivity){
         this.additivity = additivity;
+        LogManager.getInstance().loggerConfigured(this);
+    }
+
+    public boolean isAdditive(){
+        return additivity;
     }
     
     public LogLevel getEffectiveLevel(){
+        return effectiveLevel;
+    }
+
+    public boolean isEnabled(LogLevel messageLevel){
+        return messageLevel.isGreaterOrEqual(effectiveLevel);
+    }
+
+    /**
+     * Lowest level any call has to look at: the effective level, or lower while a capture
+     * sink wants suppressed events. Below that, a call only goes on while some thread has a
+     * scope open, so it costs one more volatile read of a counter that is usually zero.
+     */
+    private boolean passesGate(LogLevel messageLevel){
+        return messageLevel.isGreaterOrEqual(gateLevel) || LogManager.getInstance().hasOpenScopes();
+    }
+
+    public boolean isDebugEnabled(){
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public boolean isInfoEnabled(){
+        return isEnabled(LogLevel.INFO);
+    }
+
+    public boolean isWarnEnabled(){
+        return isEnabled(LogLevel.WARN);
+    }
+
+    public boolean isErrorEnabled(){
+        return isEnabled(LogLevel.ERROR);
+    }
+
+    /**
+     * Walks the parent chain. Only used to rebuild the cached level when
+     * {@link LogManager} invalidates this logger's subtree.
+     */
+    private LogLevel resolveEffectiveLevel(){
         for(Logger logger = this; logger !=null; logger = logger.parent){
             LogLevel currentLevel = logger.level;
             if(currentLevel != null){
                 return currentLevel;
             }
         }
-        
+
         return LogLevel.DEBUG;
     }
-    
-    public void log(LogLevel messageLevel, String message){
-        if(messageLevel.isGreaterOrEqual(getEffectiveLevel())){
-            LogMessage logMessage  = new LogMessage(messageLevel,this.name,message);
-            callAppenders(logMessage);
+
+    /**
+     * Own appenders followed by those of each ancestor until additivity stops the walk,
+     * each appender listed once even if attached at several levels.
+     */
+    private LogAppender[] resolveEffectiveAppenders(){
+        List<LogAppender> resolved = new ArrayList<>();
+        for(Logger logger = this; logger != null; logger = logger.parent){
+            for(LogAppender appender : logger.appenders){
+                if(resolved.stream().noneMatch(existing -> existing == appender)){
+                    resolved.add(appender);
+                }
+            }
+            if(!logger.additivity){
+                break;
+            }
         }
+        return resolved.isEmpty() ? NO_APPENDERS : resolved.toArray(NO_APPENDERS);
     }
 
-    private void callAppenders(LogMessage logMessage) {
-        if (!appenders.isEmpty()) {
-            LogManager.getInstance().getProcessor().process(logMessage, this.appenders);
-        }
-        if (additivity && parent != null) {
-            parent.callAppenders(logMessage);
+    private LogFilter[] resolveEffectiveFilters(){
+        List<LogFilter> resolved = new ArrayList<>();
+        for(Logger logger = this; logger != null; logger = logger.parent){
+            for(LogFilter filter : logger.filters){
+                if(resolved.stream().noneMatch(existing -> existing == filter)){
+                    resolved.add(filter);
+                }
+            }
         }
+        return resolved.isEmpty() ? NO_FILTERS : resolved.toArray(NO_FILTERS);
     }
 
-    public void debug(String message) {
-        log(LogLevel.DEBUG, message);
-    }
-    public void info(String message) {
-        log(LogLevel.INFO, message);
-    }
-    public void warn(String message) {
-        log(LogLevel.WARN, message);
-    }
-    public void error(String message) {
-        log(LogLevel.ERROR, message);
-    }
-    public void fatal(String message) {
-        log(LogLevel.FATAL, message);
+    /**
+     * The root logger is built while {@link LogManager} itself is initialising, before any
+     * capture sink can exist.
+     */
+    private LogLevel resolveGateLevel(){
+        LogManager manager = LogManager.getInstance();
+        LogLevel captureLevel = manager == null ? null : manager.getCaptureLevel();
+        if(captureLevel == null || captureLevel.isGreaterOrEqual(effectiveLevel)){
+            return effectiveLevel;
+        }
+        return captureLevel;
     }
-}
-
-
-
-
-
-
-
-
-
-
-
-
 
+    void refreshCachedConfig(){
+        this.effectiveLevel = resolveEffectiveLevel();
+        this.effectiveAppenders = resolveEffectiveAppenders();
+        this.effectiveFilters = resolveEffectiveFilters();
+        this.gateLevel = resolveGateLevel();
+    }
 
+    LogAppender[] getEffectiveAppenders(){
+        return effectiveAppenders;
+    }
 
+    Logger getParent(){
+        return parent;
+    }
 
+    /**
+     * Only called by {@link LoggerRegistry} when a logger is created between this one and its
+     * current parent.
+     */
+    void setParent(Logger parent){
+        this.parent = parent;
+    }
 
+    LoggerRegistry.Node getNode(){
+        return node;
+    }
 
+    public String getName(){
+        return name;
+    }
 
+    public void log(LogLevel messageLevel, String message){
+        if(passesGate(messageLevel)){
+            logEvent(messageLevel, message, null, null, null, 0, null, null, null);
+        }
+    }
 
+    /**
+     * Logs {@code pattern} with every {@code {}} replaced by the next argument. The text is only
+     * built if the level is enabled, and then on the processor's consumer thread. A trailing
+     * {@link Throwable} argument without a matching placeholder is logged as the event's throwable.
+     */
+    public void log(LogLevel messageLevel, String pattern, Object... arguments){
+        if(passesGate(messageLevel)){
+            logEvent(messageLevel, pattern, null, null, arguments, 0, null, null, null);
+        }
+    }
 
+    public void log(LogLevel messageLevel, String message, Throwable throwable){
+        if(passesGate(messageLevel)){
+            logEvent(messageLevel, message, null, throwable, null, 0, null, null, null);
+        }
+    }
 
+    /**
+     * The supplier is only invoked if the level is enabled, and then on the processor's
+     * consumer thread.
+     */
+    public void log(LogLevel messageLevel, Supplier<String> messageSupplier){
+        log(messageLevel, messageSupplier, null);
+    }
 
+    public void log(LogLevel messageLevel, Supplier<String> messageSupplier, Throwable throwable){
+        if(passesGate(messageLevel)){
+            logEvent(messageLevel, null, messageSupplier, throwable, null, 0, null, null, null);
+        }
+    }
 
+    /**
+     * Runs the filters and hands the event to the processor. Fixed-arity arguments are passed one
+     * by one so that a garbage-free processor can copy them into its reusable event without an array.
+     */
+    private void logEvent(LogLevel messageLevel, String pattern, Supplier<String> messageSupplier, Throwable throwable,
+                          Object[] arguments, int argumentCount, Object first, Object second, Object third) {
+        LogManager manager = LogManager.getInstance();
+        if (!messageLevel.isGreaterOrEqual(effectiveLevel)) {
+            capture(manager, messageLevel, pattern, messageSupplier, throwable, arguments, argumentCount, first, second, third);
+            return;
+        }
+        // Before the early returns below: an ERROR that no appender takes still fails the scope.
+        LogScope scope = manager.hasOpenScopes() ? LogScope.current() : null;
+        if (scope != null && messageLevel.isGreaterOrEqual(LogLevel.ERROR)) {
+            scope.failed();
+        }
+        LogAppender[] targets = effectiveAppenders;
+        if (targets.length == 0) {
+            return;
+        }
+        LogFilter[] chain = effectiveFilters;
+        LogFilter summarising = null;
+        long suppressed = 0;
+        for (LogFilter filter : chain) {
+            long result = filter.filter(name, messageLevel, pattern);
+            if (result == LogFilter.DENY) {
+                manager.getMetrics().recordFiltered();
+                return;
+            }
+            if (result > suppressed) {
+                suppressed = result;
+                summarising = filter;
+            }
+        }
+        emit(manager, scope, targets, messageLevel, pattern, messageSupplier, throwable, arguments, argumentCount, first, second, third);
+        if (suppressed > 0) {
+            // Supplier calls have no template; the logger name is the closest stable key.
+            emitSummary(manager, scope, targets, messageLevel, suppressed, summarising, pattern != null ? pattern : name);
+        }
+    }
 
+    /**
+     * Emits what this logger's own filters dropped but could not report on a later call,
+     * such as a storm that stopped. Called by {@link LogManager} on a timer and on shutdown.
+     */
+    void flushFilters(){
+        LogAppender[] targets = effectiveAppenders;
+        if (filters.isEmpty() || targets.length == 0) {
+            return;
+        }
+        LogManager manager = LogManager.getInstance();
+        for (LogFilter filter : filters) {
+            filter.flushSuppressed((level, key, count) -> emitSummary(manager, null, targets, level, count, filter, key));
+        }
+    }
 
+    private void emitSummary(LogManager manager, LogScope scope, LogAppender[] targets, LogLevel messageLevel,
+                             long suppressed, LogFilter filter, String key) {
+        // Not filtered again: the summary is what stands in for the dropped calls.
+        emit(manager, scope, targets, messageLevel, SUPPRESSED_PATTERN, null, null, null, 3,
+                suppressed, filter.getClass().getSimpleName(), key);
+    }
 
+    private void emit(LogManager manager, LogScope scope, LogAppender[] targets, LogLevel messageLevel, String pattern,
+                      Supplier<String> messageSupplier, Throwable throwable,
+                      Object[] arguments, int argumentCount, Object first, Object second, Object third) {
+        LogProcessor processor = manager.getProcessor();
+        long timestamp = manager.getClock().currentTimeMicros();
+        long started = System.nanoTime();
+
+        GarbageFreeProcessor reusing = processor instanceof GarbageFreeProcessor garbageFree ? garbageFree : null;
+        long sequence = reusing == null ? -1 : reusing.claim();
+        LogMessage event = sequence < 0 ? new LogMessage() : reusing.eventAt(sequence);
+        event.populate(timestamp, messageLevel, this.name, pattern, messageSupplier, throwable);
+        event.setContext(MDC.capture());
+        if (scope != null) {
+            event.setScope(scope.getName());
+        }
+        if (arguments != null && sequence < 0) {
+            event.setArguments(arguments);
+        } else {
+            copyArguments(event, arguments, argumentCount, first, second, third);
+        }
 
+        if (sequence < 0) {
+            processor.process(event, targets);
+        } else {
+            reusing.publish(sequence, targets);
+        }
+        manager.getMetrics().recordEvent(messageLevel, System.nanoTime() - started);
+    }
 
+    /**
+     * Hands an event below the effective level to the thread's open scope and the capture
+     * sinks, on the calling thread. The event is a per-thread scratch instance, both copy what
+     * they keep. Nothing is built when neither wants it.
+     */
+    private void capture(LogManager manager, LogLevel messageLevel, String pattern, Supplier<String> messageSupplier,
+                         Throwable throwable, Object[] arguments, int argumentCount, Object first, Object second, Object third) {
+        LogManager.CaptureSink[] sinks = manager.getCaptureSinks();
+        LogScope scope = manager.hasOpenScopes() ? LogScope.current() : null;
+        if (scope == null && !wantsCapture(sinks, messageLevel)) {
+            return;
+        }
+        LogMessage event = CAPTURE_EVENT.get();
+        event.populate(manager.getClock().currentTimeMicros(), messageLevel, this.name, pattern, messageSupplier, throwable);
+        copyArguments(event, arguments, argumentCount, first, second, third);
+        event.setContext(MDC.capture());
+        if (scope != null) {
+            event.setScope(scope.getName());
+            scope.capture(event);
+        }
+        for (LogManager.CaptureSink sink : sinks) {
+            if (messageLevel.isGreaterOrEqual(sink.level())) {
+                try {
+                    sink.appender().append(event);
+                } catch (RuntimeException e) {
+                    System.out.println("Capture sink failed to record log message, exception: " + e.getMessage());
+                }
+            }
+        }
+        event.clear();
+    }
 
+    private static boolean wantsCapture(LogManager.CaptureSink[] sinks, LogLevel messageLevel) {
+        for (LogManager.CaptureSink sink : sinks) {
+            if (messageLevel.isGreaterOrEqual(sink.level())) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private static void copyArguments(LogMessage event, Object[] arguments, int argumentCount,
+                                      Object first, Object second, Object third) {
+        if (arguments != null) {
+            for (Object argument : arguments) {
+                event.addArgument(argument);
+            }
+        } else if (argumentCount > 0) {
+            event.addArgument(first);
+            if (argumentCount > 1) {
+                event.addArgument(second);
+            }
+            if (argumentCount > 2) {
+                event.addArgument(third);
+            }
+        }
+    }
 
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+    public void debug(String pattern, Object argument) {
+        if (passesGate(LogLevel.DEBUG)) {
+            logEvent(LogLevel.DEBUG, pattern, null, null, null, 1, argument, null, null);
+        }
+    }
+    public void debug(String pattern, Object first, Object second) {
+        if (passesGate(LogLevel.DEBUG)) {
+            logEvent(LogLevel.DEBUG, pattern, null, null, null, 2, first, second, null);
+        }
+    }
+    public void debug(String pattern, Object first, Object second, Object third) {
+        if (passesGate(LogLevel.DEBUG)) {
+            logEvent(LogLevel.DEBUG, pattern, null, null, null, 3, first, second, third);
+        }
+    }
+    public void debug(String pattern, Object... arguments) {
+        log(LogLevel.DEBUG, pattern, arguments);
+    }
+    public void debug(String message, Throwable throwable) {
+        log(LogLevel.DEBUG, message, throwable);
+    }
+    public void debug(Supplier<String> messageSupplier) {
+        log(LogLevel.DEBUG, messageSupplier);
+    }
+    public void debug(Supplier<String> messageSupplier, Throwable throwable) {
+        log(LogLevel.DEBUG, messageSupplier, throwable);
+    }
 
+    public void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+    public void info(String pattern, Object argument) {
+        if (passesGate(LogLevel.INFO)) {
+            logEvent(LogLevel.INFO, pattern, null, null, null, 1, argument, null, null);
+        }
+    }
+    public void info(String pattern, Object first, Object second) {
+        if (passesGate(LogLevel.INFO)) {
+            logEvent(LogLevel.INFO, pattern, null, null, null, 2, first, second, null);
+        }
+    }
+    public void info(String pattern, Object first, Object second, Object third) {
+        if (passesGate(LogLevel.INFO)) {
+            logEvent(LogLevel.INFO, pattern, null, null, null, 3, first, second, third);
+        }
+    }
+    public void info(String pattern, Object... arguments) {
+        log(LogLevel.INFO, pattern, arguments);
+    }
+    public void info(String message, Throwable throwable) {
+        log(LogLevel.INFO, message, throwable);
+    }
+    public void info(Supplier<String> messageSupplier) {
+        log(LogLevel.INFO, messageSupplier);
+    }
+    public void info(Supplier<String> messageSupplier, Throwable throwable) {
+        log(LogLevel.INFO, messageSupplier, throwable);
+    }
 
+    public void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+    public void warn(String pattern, Object argument) {
+        if (passesGate(LogLevel.WARN)) {
+            logEvent(LogLevel.WARN, pattern, null, null, null, 1, argument, null, null);
+        }
+    }
+    public void warn(String pattern, Object first, Object second) {
+        if (passesGate(LogLevel.WARN)) {
+            logEvent(LogLevel.WARN, pattern, null, null, null, 2, first, second, null);
+        }
+    }
+    public void warn(String pattern, Object first, Object second, Object third) {
+        if (passesGate(LogLevel.WARN)) {
+            logEvent(LogLevel.WARN, pattern, null, null, null, 3, first, second, third);
+        }
+    }
+    public void warn(String pattern, Object... arguments) {
+        log(LogLevel.WARN, pattern, arguments);
+    }
+    public void warn(String message, Throwable throwable) {
+        log(LogLevel.WARN, message, throwable);
+    }
+    public void warn(Supplier<String> messageSupplier) {
+        log(LogLevel.WARN, messageSupplier);
+    }
+    public void warn(Supplier<String> messageSupplier, Throwable throwable) {
+        log(LogLevel.WARN, messageSupplier, throwable);
+    }
 
+    public void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+    public void error(String pattern, Object argument) {
+        if (passesGate(LogLevel.ERROR)) {
+            logEvent(LogLevel.ERROR, pattern, null, null, null, 1, argument, null, null);
+        }
+    }
+    public void error(String pattern, Object first, Object second) {
+        if (passesGate(LogLevel.ERROR)) {
+            logEvent(LogLevel.ERROR, pattern, null, null, null, 2, first, second, null);
+        }
+    }
+    public void error(String pattern, Object first, Object second, Object third) {
+        if (passesGate(LogLevel.ERROR)) {
+            logEvent(LogLevel.ERROR, pattern, null, null, null, 3, first, second, third);
+        }
+    }
+    public void error(String pattern, Object... arguments) {
+        log(LogLevel.ERROR, pattern, arguments);
+    }
+    public void error(String message, Throwable throwable) {
+        log(LogLevel.ERROR, message, throwable);
+    }
+    public void error(Supplier<String> messageSupplier) {
+        log(LogLevel.ERROR, messageSupplier);
+    }
+    public void error(Supplier<String> messageSupplier, Throwable throwable) {
+        log(LogLevel.ERROR, messageSupplier, throwable);
+    }
 
+    public void fatal(String message) {
+        log(LogLevel.FATAL, message);
+    }
+    public void fatal(String pattern, Object argument) {
+        if (passesGate(LogLevel.FATAL)) {
+            logEvent(LogLevel.FATAL, pattern, null, null, null, 1, argument, null, null);
+        }
+    }
+    public void fatal(String pattern, Object first, Object second) {
+        if (passesGate(LogLevel.FATAL)) {
+            logEvent(LogLevel.FATAL, pattern, null, null, null, 2, first, second, null);
+        }
+    }
+    public void fatal(String pattern, Object first, Object second, Object third) {
+        if (passesGate(LogLevel.FATAL)) {
+            logEvent(LogLevel.FATAL, pattern, null, null, null, 3, first, second, third);
+        }
+    }
+    public void fatal(String pattern, Object... arguments) {
+        log(LogLevel.FATAL, pattern, arguments);
+    }
+    public void fatal(String message, Throwable throwable) {
+        log(LogLevel.FATAL, message, throwable);
+    }
+    public void fatal(Supplier<String> messageSupplier) {
+        log(LogLevel.FATAL, messageSupplier);
+    }
+    public void fatal(Supplier<String> messageSupplier, Throwable throwable) {
+        log(LogLevel.FATAL, messageSupplier, throwable);
+    }
+}
@@ -0,0 +1,205 @@
+package org.lldProblems.loggingframework;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Trie of loggers keyed by dot-separated name segments.
+ * <p>
+ * Lookups only read volatile fields and {@link ConcurrentHashMap#get}. Missing nodes are added
+ * with a single {@code putIfAbsent}/{@code replace} and loggers are installed into their node
+ * with a CAS, so no lock is held while another logger is created. Only the requested name gets
+ * a logger: its parent is the nearest ancestor that has one, and a logger created later for an
+ * intermediate name adopts the descendants below it.
+ * <p>
+ * A node is only weakly referenced by its parent. A logger keeps its node, and every node keeps
+ * its parent node, so the trie stays as long as some logger below it is reachable. Loggers that
+ * were never configured are dropped once the application stops using them; configured loggers
+ * are pinned.
+ */
+class LoggerRegistry {
+
+    private final Node root;
+    private final ReferenceQueue<Node> collected = new ReferenceQueue<>();
+    private final Set<Logger> pinned = ConcurrentHashMap.newKeySet();
+
+    LoggerRegistry() {
+        this.root = new Node("root", null);
+        this.root.logger = new Logger("root", null, root);
+        pinned.add(root.logger);
+    }
+
+    Logger getRootLogger() {
+        return root.logger;
+    }
+
+    Logger getOrCreate(String name) {
+        if (name.equals("root")) {
+            return root.logger;
+        }
+        expungeCollected();
+
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int dot = name.indexOf('.', start);
+            int end = dot < 0 ? name.length() : dot;
+            node = node.child(name.substring(start, end), name, end, collected);
+            if (dot < 0) {
+                break;
+            }
+            start = dot + 1;
+        }
+
+        Logger logger = node.logger;
+        return logger != null ? logger : install(node);
+    }
+
+    private Logger install(Node node) {
+        Logger created = new Logger(node.name, nearestLogger(node.parent), node);
+        if (!Node.LOGGER.compareAndSet(node, null, created)) {
+            return node.logger;
+        }
+        // An ancestor may have been installed concurrently and missed this logger while adopting.
+        reparent(node);
+        adoptDescendants(node);
+        return created;
+    }
+
+    private void adoptDescendants(Node node) {
+        for (WeakReference<Node> ref : node.children.values()) {
+            Node child = ref.get();
+            if (child == null) {
+                continue;
+            }
+            if (child.logger != null) {
+                reparent(child);
+            } else {
+                adoptDescendants(child);
+            }
+        }
+    }
+
+    /**
+     * Points the node's logger at its nearest ancestor logger as the trie looks now. Recomputing
+     * under the node's lock means the last of several concurrent adopters sets the right parent.
+     */
+    private void reparent(Node node) {
+        Logger logger = node.logger;
+        synchronized (node) {
+            Logger parent = nearestLogger(node.parent);
+            if (logger.getParent() == parent) {
+                return;
+            }
+            logger.setParent(parent);
+        }
+        logger.refreshCachedConfig();
+    }
+
+    private static Logger nearestLogger(Node node) {
+        for (Node current = node; current != null; current = current.parent) {
+            Logger logger = current.logger;
+            if (logger != null) {
+                return logger;
+            }
+        }
+        return null;
+    }
+
+    void pin(Logger logger) {
+        pinned.add(logger);
+    }
+
+    /**
+     * Visits {@code logger} and every logger below it in the trie.
+     */
+    void forEachInSubtree(Logger logger, Consumer<Logger> action) {
+        Node node = logger.getNode();
+        if (node == null) {
+            action.accept(logger);
+            return;
+        }
+        visit(node, action);
+    }
+
+    void forEach(Consumer<Logger> action) {
+        visit(root, action);
+    }
+
+    private static void visit(Node node, Consumer<Logger> action) {
+        Logger logger = node.logger;
+        if (logger != null) {
+            action.accept(logger);
+        }
+        for (WeakReference<Node> ref : node.children.values()) {
+            Node child = ref.get();
+            if (child != null) {
+                visit(child, action);
+            }
+        }
+    }
+
+    private void expungeCollected() {
+        NodeRef ref;
+        while ((ref = (NodeRef) collected.poll()) != null) {
+            ref.parent.children.remove(ref.segment, ref);
+        }
+    }
+
+    static final class Node {
+        private static final VarHandle LOGGER;
+
+        static {
+            try {
+                LOGGER = MethodHandles.lookup().findVarHandle(Node.class, "logger", Logger.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final String name;
+        private final Node parent;
+        private final Map<String, NodeRef> children = new ConcurrentHashMap<>();
+        private volatile Logger logger;
+
+        private Node(String name, Node parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        private Node child(String segment, String fullName, int end, ReferenceQueue<Node> queue) {
+            while (true) {
+                NodeRef ref = children.get(segment);
+                Node child = ref == null ? null : ref.get();
+                if (child != null) {
+                    return child;
+                }
+                Node created = new Node(fullName.substring(0, end), this);
+                NodeRef createdRef = new NodeRef(created, segment, this, queue);
+                boolean installed = ref == null
+                        ? children.putIfAbsent(segment, createdRef) == null
+                        : children.replace(segment, ref, createdRef);
+                if (installed) {
+                    return created;
+                }
+            }
+        }
+    }
+
+    private static final class NodeRef extends WeakReference<Node> {
+        private final String segment;
+        private final Node parent;
+
+        private NodeRef(Node node, String segment, Node parent, ReferenceQueue<Node> queue) {
+            super(node, queue);
+            this.segment = segment;
+            this.parent = parent;
+        }
+    }
+}
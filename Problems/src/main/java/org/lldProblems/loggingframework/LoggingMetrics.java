@@ -0,0 +1,217 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the logging pipeline. Producers only touch striped counters
+ * ({@link LongAdder} and {@link Log2Histogram}), so recording adds no shared write to the
+ * logging path. Batch sizes and the queue high-water mark are recorded by the single
+ * consumer thread; the high-water mark is the queue depth seen at each drain.
+ */
+public final class LoggingMetrics implements LoggingMetricsMXBean {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final long MIN_RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LogManager manager;
+    private final LongAdder[] events = new LongAdder[LEVELS.length];
+    private final LongAdder filtered = new LongAdder();
+    private final Log2Histogram enqueueLatency = new Log2Histogram();
+    private final Log2Histogram batchSizes = new Log2Histogram();
+    private final Map<LogAppender, AppenderMetrics> appenders = new ConcurrentHashMap<>();
+    private volatile int queueHighWaterMark;
+
+    private final long[] rateBase = new long[LEVELS.length];
+    private final double[] rates = new double[LEVELS.length];
+    private long rateBaseNanos = System.nanoTime();
+
+    LoggingMetrics(LogManager manager) {
+        this.manager = manager;
+        for (int i = 0; i < LEVELS.length; i++) {
+            events[i] = new LongAdder();
+        }
+    }
+
+    void recordEvent(LogLevel level, long enqueueNanos) {
+        events[level.ordinal()].increment();
+        enqueueLatency.record(enqueueNanos);
+    }
+
+    void recordFiltered() {
+        filtered.increment();
+    }
+
+    /**
+     * Consumer thread only.
+     */
+    void recordBatch(int size) {
+        batchSizes.record(size);
+        if (size > queueHighWaterMark) {
+            queueHighWaterMark = size;
+        }
+    }
+
+    AppenderMetrics forAppender(LogAppender appender) {
+        AppenderMetrics metrics = appenders.get(appender);
+        if (metrics == null) {
+            metrics = appenders.computeIfAbsent(appender, a -> new AppenderMetrics(nameOf(a)));
+        }
+        return metrics;
+    }
+
+    private static String nameOf(LogAppender appender) {
+        String type = appender.getClass().getSimpleName();
+        if (type.isEmpty()) {
+            type = appender.getClass().getName();
+        }
+        return type + "@" + Integer.toHexString(System.identityHashCode(appender));
+    }
+
+    public long getEventCount(LogLevel level) {
+        return events[level.ordinal()].sum();
+    }
+
+    public Log2Histogram getEnqueueLatency() {
+        return enqueueLatency;
+    }
+
+    public Log2Histogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    public AppenderMetrics getAppenderMetrics(LogAppender appender) {
+        return appenders.get(appender);
+    }
+
+    @Override
+    public Map<String, Long> getEventCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (LogLevel level : LEVELS) {
+            counts.put(level.name(), getEventCount(level));
+        }
+        return counts;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getEventRates() {
+        long now = System.nanoTime();
+        long elapsed = now - rateBaseNanos;
+        if (elapsed >= MIN_RATE_INTERVAL_NANOS) {
+            for (LogLevel level : LEVELS) {
+                long current = getEventCount(level);
+                rates[level.ordinal()] = (current - rateBase[level.ordinal()]) * 1e9 / elapsed;
+                rateBase[level.ordinal()] = current;
+            }
+            rateBaseNanos = now;
+        }
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (LogLevel level : LEVELS) {
+            result.put(level.name(), rates[level.ordinal()]);
+        }
+        return result;
+    }
+
+    @Override
+    public long getTotalEvents() {
+        long total = 0;
+        for (LongAdder counter : events) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return manager.getProcessor().getQueueSize();
+    }
+
+    @Override
+    public int getQueueHighWaterMark() {
+        return queueHighWaterMark;
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return manager.getProcessor().getDroppedCount();
+    }
+
+    @Override
+    public long getFilteredEvents() {
+        return filtered.sum();
+    }
+
+    @Override
+    public long getEnqueueLatencyP50Nanos() {
+        return enqueueLatency.percentile(50);
+    }
+
+    @Override
+    public long getEnqueueLatencyP99Nanos() {
+        return enqueueLatency.percentile(99);
+    }
+
+    @Override
+    public long getEnqueueLatencyMaxNanos() {
+        return enqueueLatency.getMax();
+    }
+
+    @Override
+    public long[] getEnqueueLatencyHistogram() {
+        return enqueueLatency.getBucketCounts();
+    }
+
+    @Override
+    public long getBatchCount() {
+        return batchSizes.getCount();
+    }
+
+    @Override
+    public long getBatchSizeP50() {
+        return batchSizes.percentile(50);
+    }
+
+    @Override
+    public long getBatchSizeP99() {
+        return batchSizes.percentile(99);
+    }
+
+    @Override
+    public long getBatchSizeMax() {
+        return batchSizes.getMax();
+    }
+
+    @Override
+    public long[] getBatchSizeHistogram() {
+        return batchSizes.getBucketCounts();
+    }
+
+    @Override
+    public List<AppenderMetrics> getAppenders() {
+        return new ArrayList<>(appenders.values());
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (LongAdder counter : events) {
+            counter.reset();
+        }
+        filtered.reset();
+        enqueueLatency.reset();
+        batchSizes.reset();
+        appenders.values().forEach(AppenderMetrics::reset);
+        queueHighWaterMark = 0;
+        Arrays.fill(rateBase, 0);
+        Arrays.fill(rates, 0);
+        rateBaseNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,54 @@
+package org.lldProblems.loggingframework;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of {@link LoggingMetrics}, registered by {@link LogManager} as
+ * {@code org.lldProblems.loggingframework:type=LoggingMetrics}. Latencies are in
+ * nanoseconds; histograms hold one count per power-of-two bucket.
+ */
+public interface LoggingMetricsMXBean {
+
+    Map<String, Long> getEventCounts();
+
+    /**
+     * Events per second per level, averaged since the previous read (at least one second).
+     */
+    Map<String, Double> getEventRates();
+
+    long getTotalEvents();
+
+    int getQueueDepth();
+
+    int getQueueHighWaterMark();
+
+    long getDroppedEvents();
+
+    /**
+     * Enabled calls denied by a {@code LogFilter}; not part of any other count.
+     */
+    long getFilteredEvents();
+
+    long getEnqueueLatencyP50Nanos();
+
+    long getEnqueueLatencyP99Nanos();
+
+    long getEnqueueLatencyMaxNanos();
+
+    long[] getEnqueueLatencyHistogram();
+
+    long getBatchCount();
+
+    long getBatchSizeP50();
+
+    long getBatchSizeP99();
+
+    long getBatchSizeMax();
+
+    long[] getBatchSizeHistogram();
+
+    List<AppenderMetrics> getAppenders();
+
+    void reset();
+}
@@ -0,0 +1,131 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.ContextMap;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Mapped diagnostic context: key/value pairs of the current thread that are attached to every
+ * event it logs. The thread holds an immutable {@link ContextMap}, so attaching it to an event is
+ * a single reference copy, also when the event is formatted later on another thread.
+ * <p>
+ * The context is a plain (not inheritable) thread local, which works the same on platform and
+ * virtual threads. Tasks handed to other threads do not see it unless they are wrapped with
+ * {@link #wrap(Runnable)}, {@link #wrap(Callable)} or {@link #wrap(Executor)}.
+ */
+public final class MDC {
+
+    private static final ThreadLocal<ContextMap> CONTEXT = new ThreadLocal<>();
+    private static volatile boolean used;
+
+    private MDC() {
+    }
+
+    public static void put(String key, String value) {
+        used = true;
+        CONTEXT.set(getContext().with(key, value));
+    }
+
+    public static String get(String key) {
+        return getContext().get(key);
+    }
+
+    public static void remove(String key) {
+        ContextMap context = CONTEXT.get();
+        if (context != null) {
+            CONTEXT.set(context.without(key));
+        }
+    }
+
+    public static void clear() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * Sets {@code key} until the returned handle is closed, then restores the previous context.
+     */
+    public static Restore putCloseable(String key, String value) {
+        ContextMap previous = getContext();
+        put(key, value);
+        return new Restore(previous);
+    }
+
+    public static ContextMap getContext() {
+        ContextMap context = CONTEXT.get();
+        return context == null ? ContextMap.empty() : context;
+    }
+
+    /**
+     * Replaces the whole context and returns the previous one.
+     */
+    public static ContextMap setContext(ContextMap context) {
+        ContextMap previous = getContext();
+        if (context == null || context.isEmpty()) {
+            CONTEXT.remove();
+        } else {
+            used = true;
+            CONTEXT.set(context);
+        }
+        return previous;
+    }
+
+    /**
+     * Context to attach to an event, or null when there is none. Skips the thread-local lookup
+     * entirely until some thread has put a value.
+     */
+    static ContextMap capture() {
+        if (!used) {
+            return null;
+        }
+        ContextMap context = CONTEXT.get();
+        return context == null || context.isEmpty() ? null : context;
+    }
+
+    /**
+     * Runs {@code task} with the context of the calling thread, wherever it is executed.
+     */
+    public static Runnable wrap(Runnable task) {
+        ContextMap captured = getContext();
+        return () -> {
+            ContextMap previous = setContext(captured);
+            try {
+                task.run();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        ContextMap captured = getContext();
+        return () -> {
+            ContextMap previous = setContext(captured);
+            try {
+                return task.call();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    /**
+     * Executor that runs every task with the context of the thread that submitted it.
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    public static final class Restore implements AutoCloseable {
+        private final ContextMap previous;
+
+        private Restore(ContextMap previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            setContext(previous);
+        }
+    }
+}
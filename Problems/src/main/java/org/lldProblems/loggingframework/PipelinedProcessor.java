@@ -0,0 +1,325 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.wait.WaitStrategy;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer like {@link RingBufferProcessor} with the formatting taken off the consumer.
+ * <p>
+ * Events pass three stages. Producers claim a sequence and publish the event into its slot.
+ * {@code formatWorkers} threads each take the next unformatted sequence from a shared counter
+ * and format the event into the slot's own byte buffer, once per target appender that
+ * {@link LogAppender#acceptsEncoded() accepts encoded records} (appenders sharing a formatter
+ * share the bytes). A single writer thread then walks the sequences in order, waiting for each
+ * slot to be formatted, and hands the bytes to the appenders; appenders that do not accept
+ * encoded records get the event as usual. Every appender therefore still sees events in
+ * publish order and is only ever called from one thread, while formatting, usually the
+ * expensive part, runs on as many cores as there are workers.
+ * <p>
+ * Formatters of appenders that accept encoded records are called from several workers at
+ * once, so they must be thread safe.
+ */
+public class PipelinedProcessor implements LogProcessor {
+
+    private static final long STOP_TIMEOUT_MILLIS = 2000;
+    private static final int INITIAL_RECORD_CAPACITY = 512;
+    private static final int RETAINED_RECORD_CAPACITY = 64 * 1024;
+
+    private final int bufferSize;
+    private final int mask;
+    private final LogMessage[] messages;
+    private final LogAppender[][] appenders;
+    private final ByteBuffer[] records;
+    // Per slot and target appender: start and end of its bytes in the slot's record buffer,
+    // or -1 when the appender gets the event instead.
+    private final int[][] bounds;
+    private final AtomicLongArray published;
+    private final AtomicLongArray formatted;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong formatCursor = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final WaitStrategy waitStrategy;
+    private final Thread[] workers;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private volatile LogProcessor successor;
+
+    public PipelinedProcessor(int bufferSize, int formatWorkers, WaitStrategy waitStrategy) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize must be at least 2, got " + bufferSize);
+        }
+        if (formatWorkers < 1) {
+            throw new IllegalArgumentException("formatWorkers must be at least 1, got " + formatWorkers);
+        }
+        this.bufferSize = Integer.highestOneBit(bufferSize - 1) << 1;
+        this.mask = this.bufferSize - 1;
+        this.messages = new LogMessage[this.bufferSize];
+        this.appenders = new LogAppender[this.bufferSize][];
+        this.records = new ByteBuffer[this.bufferSize];
+        this.bounds = new int[this.bufferSize][];
+        this.published = new AtomicLongArray(this.bufferSize);
+        this.formatted = new AtomicLongArray(this.bufferSize);
+        for (int i = 0; i < this.bufferSize; i++) {
+            published.set(i, -1);
+            formatted.set(i, -1);
+            records[i] = ByteBuffer.allocate(INITIAL_RECORD_CAPACITY);
+            bounds[i] = new int[4];
+        }
+        this.waitStrategy = waitStrategy;
+
+        this.workers = new Thread[formatWorkers];
+        for (int i = 0; i < formatWorkers; i++) {
+            workers[i] = new Thread(this::format, "LogFormatWorker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        this.writerThread = new Thread(this::write, "AsyncLogProcessor");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void process(LogMessage message, LogAppender[] appenders) {
+        long sequence = next();
+        if (sequence < 0) {
+            rejected(message, appenders);
+            return;
+        }
+        int index = (int) sequence & mask;
+        messages[index] = message;
+        this.appenders[index] = appenders;
+        published.set(index, sequence);
+    }
+
+    /**
+     * Called for an event this processor did not accept because it is stopped.
+     */
+    private void rejected(LogMessage message, LogAppender[] appenders) {
+        LogProcessor next = successor;
+        if (next != null) {
+            next.process(message, appenders);
+        } else {
+            System.out.println("Logger is shut down. Cannot process log message.");
+        }
+    }
+
+    /**
+     * Claims the next sequence and waits until the writer is done with its slot,
+     * or returns -1 if the processor is shut down; the caller reports or forwards the event.
+     * <p>
+     * {@code running} is checked again after the claim, as in {@link RingBufferProcessor}.
+     * A slot claimed after {@link #stop()} is published empty and already formatted, so the
+     * writer can pass it after the format workers have exited.
+     */
+    private long next() {
+        if (!running) {
+            return -1;
+        }
+
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - bufferSize;
+        int attempt = 0;
+        while (wrapPoint > consumed.get()) {
+            if (!writerThread.isAlive()) {
+                return -1;
+            }
+            waitStrategy.idle(attempt++);
+        }
+        if (!running) {
+            int index = (int) sequence & mask;
+            messages[index] = null;
+            this.appenders[index] = null;
+            published.set(index, sequence);
+            formatted.set(index, sequence);
+            return -1;
+        }
+        return sequence;
+    }
+
+    /**
+     * Exits once stopped and the writer has consumed every claimed sequence; a later claim
+     * sees the stop and needs no worker.
+     */
+    private void format() {
+        while (true) {
+            long sequence = formatCursor.incrementAndGet();
+            int index = (int) sequence & mask;
+            int attempt = 0;
+            long current;
+            while ((current = published.get(index)) < sequence) {
+                if (!running && consumed.get() >= cursor.get() || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+            }
+            if (current > sequence) {
+                // An empty slot published at stop, consumed and reused before this worker got to it.
+                continue;
+            }
+            encode(index);
+            formatted.set(index, sequence);
+        }
+    }
+
+    private void encode(int index) {
+        LogMessage message = messages[index];
+        LogAppender[] targets = appenders[index];
+        if (targets == null) {
+            return;
+        }
+        if (bounds[index].length < 2 * targets.length) {
+            bounds[index] = new int[2 * targets.length];
+        }
+        int[] slotBounds = bounds[index];
+        while (true) {
+            ByteBuffer record = records[index];
+            record.clear();
+            try {
+                for (int i = 0; i < targets.length; i++) {
+                    encode(message, targets, i, record, slotBounds);
+                }
+                return;
+            } catch (BufferOverflowException e) {
+                records[index] = ByteBuffer.allocate(record.capacity() * 2);
+            } catch (RuntimeException e) {
+                // Leave the event to the appenders, which report failures through the writer.
+                for (int i = 0; i < targets.length; i++) {
+                    slotBounds[2 * i] = -1;
+                }
+                return;
+            }
+        }
+    }
+
+    private static void encode(LogMessage message, LogAppender[] targets, int target, ByteBuffer record, int[] slotBounds) {
+        LogAppender appender = targets[target];
+        LogFormatter formatter = appender.acceptsEncoded() ? appender.getFormatter() : null;
+        if (formatter == null) {
+            slotBounds[2 * target] = -1;
+            return;
+        }
+        for (int i = 0; i < target; i++) {
+            if (slotBounds[2 * i] >= 0 && targets[i].getFormatter() == formatter) {
+                slotBounds[2 * target] = slotBounds[2 * i];
+                slotBounds[2 * target + 1] = slotBounds[2 * i + 1];
+                return;
+            }
+        }
+        slotBounds[2 * target] = record.position();
+        formatter.format(message, record);
+        slotBounds[2 * target + 1] = record.position();
+    }
+
+    private void write() {
+        LoggingMetrics metrics = LogManager.getInstance().getMetrics();
+        BatchDispatcher dispatcher = new BatchDispatcher(metrics);
+        long next = consumed.get() + 1;
+        int attempt = 0;
+
+        while (true) {
+            long available = next - 1;
+            while (formatted.get((int) (available + 1) & mask) == available + 1) {
+                available++;
+            }
+
+            if (available < next) {
+                // Interrupted by stop() when it gives up waiting; pending events are discarded.
+                if (!running && cursor.get() < next || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            metrics.recordBatch((int) (available - next + 1));
+
+            for (long sequence = next; sequence <= available; sequence++) {
+                int index = (int) sequence & mask;
+                dispatch(dispatcher, index);
+                messages[index] = null;
+                appenders[index] = null;
+                if (records[index].capacity() > RETAINED_RECORD_CAPACITY) {
+                    records[index] = ByteBuffer.allocate(INITIAL_RECORD_CAPACITY);
+                }
+            }
+            dispatcher.endBatch();
+
+            consumed.lazySet(available);
+            next = available + 1;
+        }
+    }
+
+    private void dispatch(BatchDispatcher dispatcher, int index) {
+        LogMessage message = messages[index];
+        LogAppender[] targets = appenders[index];
+        if (targets == null) {
+            return;
+        }
+        int[] slotBounds = bounds[index];
+        ByteBuffer record = records[index];
+        for (int i = 0; i < targets.length; i++) {
+            int start = slotBounds[2 * i];
+            if (start < 0) {
+                dispatcher.dispatch(message, targets[i], null);
+            } else {
+                record.limit(slotBounds[2 * i + 1]).position(start);
+                dispatcher.dispatch(message, targets[i], record);
+            }
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return (int) Math.max(0, cursor.get() - consumed.get());
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getFormatWorkers() {
+        return workers.length;
+    }
+
+    @Override
+    public void stop(LogProcessor successor) {
+        this.successor = successor;
+        stop();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(STOP_TIMEOUT_MILLIS);
+            if (writerThread.isAlive()) {
+                System.err.println("Logger pipeline writer did not terminate in the specified time.");
+                interruptAll();
+            }
+            for (Thread worker : workers) {
+                worker.join(STOP_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            interruptAll();
+            // Preserve interrupt status
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The workers wait for the writer to catch up, so they go too once the writer is stopped.
+     */
+    private void interruptAll() {
+        writerThread.interrupt();
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+}
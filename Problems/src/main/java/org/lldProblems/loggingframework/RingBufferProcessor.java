@@ -0,0 +1,222 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.wait.WaitStrategy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-producer / single-consumer alternative to {@link AsyncProcessor}.
+ * <p>
+ * Slots are preallocated, so publishing an event is an atomic increment of the claim cursor
+ * plus two array stores - no queue node, no task object and no lock. Producers claim a sequence,
+ * fill the slot and mark it published; the consumer drains every contiguous published
+ * slot as one batch and calls {@link LogAppender#flush()} once per touched appender
+ * at the end of the batch.
+ * <p>
+ * In garbage-free mode every slot owns a {@link LogMessage} for the lifetime of the
+ * processor. Loggers fill it in place through {@link #claim()} / {@link #publish}, and
+ * the consumer clears it after the appenders ran, so steady-state logging allocates nothing.
+ */
+public class RingBufferProcessor implements GarbageFreeProcessor {
+
+    private static final long STOP_TIMEOUT_MILLIS = 2000;
+
+    private final int bufferSize;
+    private final int mask;
+    private final LogMessage[] messages;
+    private final LogAppender[][] appenders;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final WaitStrategy waitStrategy;
+    private final boolean garbageFree;
+    private final Thread consumerThread;
+    private volatile boolean running = true;
+    private volatile LogProcessor successor;
+
+    public RingBufferProcessor(int bufferSize, WaitStrategy waitStrategy) {
+        this(bufferSize, waitStrategy, false);
+    }
+
+    public RingBufferProcessor(int bufferSize, WaitStrategy waitStrategy, boolean garbageFree) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize must be at least 2, got " + bufferSize);
+        }
+        this.bufferSize = Integer.highestOneBit(bufferSize - 1) << 1;
+        this.mask = this.bufferSize - 1;
+        this.messages = new LogMessage[this.bufferSize];
+        this.appenders = new LogAppender[this.bufferSize][];
+        this.published = new AtomicLongArray(this.bufferSize);
+        for (int i = 0; i < this.bufferSize; i++) {
+            published.set(i, -1);
+        }
+        this.waitStrategy = waitStrategy;
+        this.garbageFree = garbageFree;
+        if (garbageFree) {
+            for (int i = 0; i < this.bufferSize; i++) {
+                messages[i] = new LogMessage();
+            }
+        }
+        this.consumerThread = new Thread(this::consume, "AsyncLogProcessor");
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+    }
+
+    @Override
+    public void process(LogMessage message, LogAppender[] appenders) {
+        long sequence = next();
+        if (sequence < 0) {
+            rejected(message, appenders);
+            return;
+        }
+        int index = (int) sequence & mask;
+        if (garbageFree) {
+            messages[index].copyFrom(message);
+        } else {
+            messages[index] = message;
+        }
+        this.appenders[index] = appenders;
+        published.set(index, sequence);
+    }
+
+    /**
+     * Called for an event this processor did not accept because it is stopped.
+     */
+    private void rejected(LogMessage message, LogAppender[] appenders) {
+        LogProcessor next = successor;
+        if (next != null) {
+            next.process(message, appenders);
+        } else {
+            System.out.println("Logger is shut down. Cannot process log message.");
+        }
+    }
+
+    @Override
+    public long claim() {
+        return garbageFree && running ? next() : -1;
+    }
+
+    @Override
+    public LogMessage eventAt(long sequence) {
+        return messages[(int) sequence & mask];
+    }
+
+    @Override
+    public void publish(long sequence, LogAppender[] appenders) {
+        int index = (int) sequence & mask;
+        this.appenders[index] = appenders;
+        published.set(index, sequence);
+    }
+
+    /**
+     * Claims the next sequence and waits until its slot has been consumed,
+     * or returns -1 if the processor is shut down; the caller reports or forwards the event.
+     * <p>
+     * {@code running} is checked again after the claim: the consumer only exits once it has
+     * seen {@code running} false and every claimed sequence published, so a producer that
+     * claims after that check publishes its slot empty instead of leaving the consumer waiting.
+     */
+    private long next() {
+        if (!running) {
+            return -1;
+        }
+
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - bufferSize;
+        int attempt = 0;
+        while (wrapPoint > consumed.get()) {
+            if (!consumerThread.isAlive()) {
+                return -1;
+            }
+            waitStrategy.idle(attempt++);
+        }
+        if (!running) {
+            int index = (int) sequence & mask;
+            this.appenders[index] = null;
+            published.set(index, sequence);
+            return -1;
+        }
+        return sequence;
+    }
+
+    private void consume() {
+        LoggingMetrics metrics = LogManager.getInstance().getMetrics();
+        BatchDispatcher dispatcher = new BatchDispatcher(metrics);
+        long next = consumed.get() + 1;
+        int attempt = 0;
+
+        while (true) {
+            long available = next - 1;
+            while (published.get((int) (available + 1) & mask) == available + 1) {
+                available++;
+            }
+
+            if (available < next) {
+                if (!running && cursor.get() < next) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            metrics.recordBatch((int) (available - next + 1));
+
+            for (long sequence = next; sequence <= available; sequence++) {
+                int index = (int) sequence & mask;
+                LogMessage message = messages[index];
+                LogAppender[] targets = appenders[index];
+                this.appenders[index] = null;
+                if (targets != null) {
+                    dispatcher.dispatch(message, targets);
+                }
+                if (garbageFree) {
+                    message.clear();
+                } else {
+                    messages[index] = null;
+                }
+            }
+            dispatcher.endBatch();
+
+            consumed.lazySet(available);
+            next = available + 1;
+        }
+    }
+
+    public boolean isGarbageFree() {
+        return garbageFree;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return (int) Math.max(0, cursor.get() - consumed.get());
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public void stop(LogProcessor successor) {
+        this.successor = successor;
+        stop();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            consumerThread.join(STOP_TIMEOUT_MILLIS);
+            if (consumerThread.isAlive()) {
+                System.err.println("Logger ring buffer consumer did not terminate in the specified time.");
+                consumerThread.interrupt();
+            }
+        } catch (InterruptedException e) {
+            consumerThread.interrupt();
+            // Preserve interrupt status
+            Thread.currentThread().interrupt();
+        }
+    }
+}
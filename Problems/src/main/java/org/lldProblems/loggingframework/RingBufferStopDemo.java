@@ -0,0 +1,106 @@
+package org.lldProblems.loggingframework;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+import org.lldProblems.loggingframework.strategies.wait.YieldingWaitStrategy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Six producers log into a garbage-free ring buffer while it is replaced, the way
+ * {@link LogManager#setProcessor} does it. Producers go through claim/publish and fall back to
+ * process() like {@link Logger}, so they race the stop on every path. Fails if any event is
+ * neither written by the old processor nor forwarded to the new one.
+ */
+public class RingBufferStopDemo {
+
+    private static final int TRIALS = 300;
+    private static final int PRODUCERS = 6;
+    private static final int EVENTS_PER_PRODUCER = 5_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        LogManager.getInstance();
+        long lostTotal = 0;
+        int lostTrials = 0;
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long lost = runTrial();
+            if (lost != 0) {
+                lostTrials++;
+                lostTotal += lost;
+            }
+        }
+        System.out.printf("%d trials of %d producers racing stop(): %d events lost in %d trials%n",
+                TRIALS, PRODUCERS, lostTotal, lostTrials);
+        if (lostTotal != 0) {
+            throw new IllegalStateException(lostTotal + " events lost while the ring buffer stopped");
+        }
+    }
+
+    private static long runTrial() throws InterruptedException {
+        CountingAppender appender = new CountingAppender();
+        LogAppender[] targets = {appender};
+        RingBufferProcessor previous = new RingBufferProcessor(1024, new YieldingWaitStrategy(), true);
+        RingBufferProcessor next = new RingBufferProcessor(1024, new YieldingWaitStrategy(), true);
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int event = 0; event < EVENTS_PER_PRODUCER; event++) {
+                    long sequence = previous.claim();
+                    if (sequence < 0) {
+                        previous.process(new LogMessage(LogLevel.INFO, "stop.demo", "event"), targets);
+                    } else {
+                        previous.eventAt(sequence).populate(1, LogLevel.INFO, "stop.demo", "event", null, null);
+                        previous.publish(sequence, targets);
+                    }
+                }
+            });
+            producers[i].start();
+        }
+
+        start.countDown();
+        Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+        previous.stop(next);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        next.stop();
+        return (long) PRODUCERS * EVENTS_PER_PRODUCER - appender.count.get();
+    }
+
+    private static class CountingAppender implements LogAppender {
+        private final AtomicLong count = new AtomicLong();
+        private LogFormatter formatter = new SimpleTextFormatter();
+
+        @Override
+        public void append(LogMessage logMessage) {
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public LogFormatter getFormatter() {
+            return formatter;
+        }
+
+        @Override
+        public void setFormater(LogFormatter formater) {
+            this.formatter = formater;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.lldProblems.loggingframework.binary;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+
+/**
+ * Turns binary log files back into text, one event at a time, so files of any size decode in
+ * constant memory.
+ * <pre>
+ * java org.lldProblems.loggingframework.binary.BinaryLogDecoder app.blog [--out app.log]
+ *      [--context requestId,user] [--zone UTC]
+ * </pre>
+ * Without {@code --out} the text goes to standard output. The output matches what
+ * {@link SimpleTextFormatter} would have written at logging time with the same context keys.
+ */
+public final class BinaryLogDecoder {
+
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: BinaryLogDecoder <file> [--out <file>] [--context <key,...>] [--zone <zone>]");
+            return;
+        }
+        Path input = Path.of(args[0]);
+        Path output = null;
+        String[] contextKeys = new String[0];
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--out" -> output = Path.of(args[i + 1]);
+                case "--context" -> contextKeys = args[i + 1].split(",");
+                case "--zone" -> zone = ZoneId.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        OutputStream out = output == null ? System.out : Files.newOutputStream(output);
+        try {
+            long events = decode(input, out, new SimpleTextFormatter(zone, contextKeys));
+            System.err.println("Decoded " + events + " events from " + input);
+        } finally {
+            if (output != null) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Decodes every event in {@code input} with {@code formatter} and writes the text to
+     * {@code out}, which is flushed but not closed. A record cut off by a crash ends the
+     * output instead of failing it. Returns the number of events decoded.
+     */
+    public static long decode(Path input, OutputStream out, LogFormatter formatter) throws IOException {
+        OutputStream sink = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        ByteBuffer text = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+        LogMessage event = new LogMessage();
+        long events = 0;
+        try (BinaryLogReader reader = new BinaryLogReader(input)) {
+            while (reader.next(event)) {
+                write(event, formatter, text, sink);
+                events++;
+            }
+        } catch (EOFException e) {
+            System.err.println(e.getMessage() + "; stopping after " + events + " events");
+        }
+        sink.write(text.array(), 0, text.position());
+        sink.flush();
+        return events;
+    }
+
+    private static void write(LogMessage event, LogFormatter formatter, ByteBuffer text, OutputStream sink)
+            throws IOException {
+        int start = text.position();
+        try {
+            formatter.format(event, text);
+            return;
+        } catch (BufferOverflowException e) {
+            text.position(start);
+        }
+        sink.write(text.array(), 0, start);
+        text.clear();
+        try {
+            formatter.format(event, text);
+        } catch (BufferOverflowException e) {
+            text.clear();
+            sink.write(formatter.format(event).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
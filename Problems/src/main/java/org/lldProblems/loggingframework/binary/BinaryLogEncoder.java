@@ -0,0 +1,225 @@
+package org.lldProblems.loggingframework.binary;
+
+import org.lldProblems.loggingframework.enitties.ContextMap;
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.formatter.MessageFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.Utf8;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lldProblems.loggingframework.binary.BinaryLogFormat.*;
+
+/**
+ * Writes events in the {@link BinaryLogFormat} layout. Logger names, thread names, message
+ * templates and MDC keys are written in full the first time and as a dictionary index after
+ * that; timestamps are varint deltas from the previous event; arguments are stored as typed
+ * values and only rendered when the file is decoded. Boxed primitives and strings are kept as
+ * they are, any other argument is rendered to text here, as a placeholder would.
+ * <p>
+ * The dictionary only grows up to {@code maxDictionarySize}; strings seen after that are
+ * written inline every time. Keeps per-stream state, so one encoder belongs to one output
+ * and one thread.
+ */
+public final class BinaryLogEncoder {
+
+    public static final int DEFAULT_MAX_DICTIONARY_SIZE = 16 * 1024;
+
+    private final int maxDictionarySize;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> pending = new ArrayList<>();
+    private final StringBuilder scratch = new StringBuilder(64);
+    private long lastTimestampMicros;
+    private ContextMap lastContext;
+    private boolean headerWritten;
+
+    public BinaryLogEncoder() {
+        this(DEFAULT_MAX_DICTIONARY_SIZE);
+    }
+
+    public BinaryLogEncoder(int maxDictionarySize) {
+        this.maxDictionarySize = maxDictionarySize;
+    }
+
+    /**
+     * Writes one record, preceded by a segment header if this is the first record since
+     * construction or {@link #reset()}. If {@code out} runs out of room the record is rolled
+     * back, including dictionary entries it defined, and the
+     * {@link BufferOverflowException} is rethrown with the buffer position restored.
+     */
+    public void encode(LogMessage logMessage, ByteBuffer out) {
+        int start = out.position();
+        long previousTimestamp = lastTimestampMicros;
+        ContextMap previousContext = lastContext;
+        boolean previousHeader = headerWritten;
+        try {
+            if (!headerWritten) {
+                out.put(MAGIC).put(VERSION);
+                headerWritten = true;
+            }
+            encodeEvent(logMessage, out);
+            pending.clear();
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            lastTimestampMicros = previousTimestamp;
+            lastContext = previousContext;
+            headerWritten = previousHeader;
+            for (String entry : pending) {
+                dictionary.remove(entry);
+            }
+            pending.clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a new segment: the next record repeats the header and redefines every string.
+     */
+    public void reset() {
+        dictionary.clear();
+        pending.clear();
+        lastTimestampMicros = 0;
+        lastContext = null;
+        headerWritten = false;
+    }
+
+    private void encodeEvent(LogMessage logMessage, ByteBuffer out) {
+        out.put(RECORD_EVENT);
+        long timestamp = logMessage.getTimestampMicros();
+        putZigZag(out, timestamp - lastTimestampMicros);
+        lastTimestampMicros = timestamp;
+        out.put((byte) logMessage.getLoglevel().ordinal());
+        putRef(out, logMessage.getLoggerName());
+        putRef(out, logMessage.getThreadName());
+
+        int argumentCount = logMessage.getArgumentCount();
+        if (logMessage.getMessageSupplier() != null) {
+            // Supplied messages are different every time: keep the text, not the supplier.
+            putLiteralRef(out, logMessage.getMessage());
+            argumentCount = 0;
+        } else {
+            putRef(out, logMessage.getMessagePattern());
+        }
+        putLiteralRef(out, logMessage.getScope());
+
+        Object[] arguments = logMessage.getArguments();
+        if (argumentCount > 0 && arguments[argumentCount - 1] instanceof Throwable
+                && MessageFormatter.countPlaceholders(logMessage.getMessagePattern()) < argumentCount) {
+            // The trailing throwable is written as the stack trace below.
+            argumentCount--;
+        }
+        putVarint(out, argumentCount);
+        for (int i = 0; i < argumentCount; i++) {
+            putArgument(out, arguments[i]);
+        }
+
+        ContextMap context = logMessage.getContext();
+        if (context.isEmpty()) {
+            putVarint(out, CONTEXT_EMPTY);
+        } else if (context == lastContext) {
+            // Context maps are immutable and shared by every event logged until the next change.
+            putVarint(out, CONTEXT_SAME);
+        } else {
+            putVarint(out, CONTEXT_FIRST_SIZE + context.size());
+            for (int i = 0; i < context.size(); i++) {
+                putRef(out, context.keyAt(i));
+                putLiteral(out, context.valueAt(i));
+            }
+        }
+        lastContext = context;
+
+        Throwable throwable = logMessage.getThrowable();
+        putLiteralRef(out, throwable == null ? null : stackTraceOf(throwable));
+    }
+
+    private void putArgument(ByteBuffer out, Object argument) {
+        if (argument == null) {
+            out.put(ARG_NULL);
+        } else if (argument instanceof String text) {
+            out.put(ARG_STRING);
+            putLiteral(out, text);
+        } else if (argument instanceof Integer value) {
+            out.put(ARG_INT);
+            putZigZag(out, value);
+        } else if (argument instanceof Long value) {
+            out.put(ARG_LONG);
+            putZigZag(out, value);
+        } else if (argument instanceof Double value) {
+            out.put(ARG_DOUBLE).putDouble(value);
+        } else if (argument instanceof Float value) {
+            out.put(ARG_FLOAT).putFloat(value);
+        } else if (argument instanceof Boolean value) {
+            out.put(value ? ARG_TRUE : ARG_FALSE);
+        } else if (argument instanceof Character value) {
+            out.put(ARG_CHAR);
+            putVarint(out, value);
+        } else if (argument instanceof Short value) {
+            out.put(ARG_SHORT);
+            putZigZag(out, value);
+        } else if (argument instanceof Byte value) {
+            out.put(ARG_BYTE).put(value);
+        } else {
+            scratch.setLength(0);
+            MessageFormatter.appendArgument(scratch, argument);
+            out.put(ARG_STRING);
+            putLiteral(out, scratch);
+        }
+    }
+
+    private void putRef(ByteBuffer out, String text) {
+        if (text == null) {
+            putVarint(out, REF_NULL);
+            return;
+        }
+        Integer id = dictionary.get(text);
+        if (id != null) {
+            putVarint(out, REF_FIRST_ID + id);
+        } else if (dictionary.size() < maxDictionarySize) {
+            dictionary.put(text, dictionary.size());
+            pending.add(text);
+            putVarint(out, REF_DEFINE);
+            putLiteral(out, text);
+        } else {
+            putVarint(out, REF_LITERAL);
+            putLiteral(out, text);
+        }
+    }
+
+    private static void putLiteralRef(ByteBuffer out, String text) {
+        if (text == null) {
+            putVarint(out, REF_NULL);
+        } else {
+            putVarint(out, REF_LITERAL);
+            putLiteral(out, text);
+        }
+    }
+
+    private static void putLiteral(ByteBuffer out, CharSequence text) {
+        putVarint(out, Utf8.encodedLength(text));
+        Utf8.encode(text, out);
+    }
+
+    private static void putZigZag(ByteBuffer out, long value) {
+        putVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static String stackTraceOf(Throwable throwable) {
+        StringWriter stackTrace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(stackTrace));
+        return stackTrace.toString();
+    }
+}
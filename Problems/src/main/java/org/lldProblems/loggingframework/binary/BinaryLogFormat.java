@@ -0,0 +1,53 @@
+package org.lldProblems.loggingframework.binary;
+
+/**
+ * Layout shared by {@link BinaryLogEncoder} and {@link BinaryLogReader}.
+ * <p>
+ * A file is one or more segments. Each segment starts with {@link #MAGIC} and a version byte
+ * and has its own string dictionary and timestamp base, so an appender reopening a file just
+ * starts a new segment. Records follow, each starting with a tag byte:
+ * <pre>
+ * EVENT: tag, timestamp delta in micros (zigzag varint), level ordinal (byte),
+ *        logger ref, thread ref, template ref, scope ref,
+ *        argument count (varint), arguments (type byte + value),
+ *        context marker (varint), context entries (key ref, value literal),
+ *        stack trace literal (or null)
+ * </pre>
+ * A string ref is a varint: {@link #REF_NULL}; {@link #REF_DEFINE} followed by a literal that
+ * becomes the next dictionary entry; {@link #REF_LITERAL} followed by a literal that is not
+ * kept; or {@link #REF_FIRST_ID} plus a dictionary index. The context marker is
+ * {@link #CONTEXT_EMPTY}, {@link #CONTEXT_SAME} for the previous event's context, or
+ * {@link #CONTEXT_FIRST_SIZE} plus the number of entries that follow. A literal is the UTF-8 length as a
+ * varint followed by the bytes.
+ */
+final class BinaryLogFormat {
+
+    static final byte[] MAGIC = {(byte) 0xB1, 'L', 'G', 'B'};
+    static final byte VERSION = 1;
+
+    static final byte RECORD_EVENT = 1;
+
+    static final int REF_NULL = 0;
+    static final int REF_DEFINE = 1;
+    static final int REF_LITERAL = 2;
+    static final int REF_FIRST_ID = 3;
+
+    static final int CONTEXT_EMPTY = 0;
+    static final int CONTEXT_SAME = 1;
+    static final int CONTEXT_FIRST_SIZE = 2;
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_STRING = 1;
+    static final byte ARG_INT = 2;
+    static final byte ARG_LONG = 3;
+    static final byte ARG_DOUBLE = 4;
+    static final byte ARG_FLOAT = 5;
+    static final byte ARG_TRUE = 6;
+    static final byte ARG_FALSE = 7;
+    static final byte ARG_CHAR = 8;
+    static final byte ARG_SHORT = 9;
+    static final byte ARG_BYTE = 10;
+
+    private BinaryLogFormat() {
+    }
+}
@@ -0,0 +1,297 @@
+package org.lldProblems.loggingframework.binary;
+
+import org.lldProblems.loggingframework.enitties.ContextMap;
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lldProblems.loggingframework.binary.BinaryLogFormat.*;
+
+/**
+ * Reads a file written by {@link BinaryLogEncoder} one event at a time through a fixed read
+ * buffer, so memory does not depend on the file size. Decoded events have their arguments
+ * back as boxed values and their stack trace as a {@link RecordedThrowable}, so any
+ * formatter renders them as it would have rendered the original.
+ */
+public final class BinaryLogReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final int MAX_COUNT = 1 << 16;
+
+    private final FileChannel channel;
+    private final List<String> dictionary = new ArrayList<>();
+    private ByteBuffer buffer;
+    private Object[] arguments = new Object[8];
+    private long bufferStart;
+    private boolean endOfFile;
+    private long lastTimestampMicros;
+    private ContextMap lastContext = ContextMap.empty();
+    private boolean inSegment;
+
+    public BinaryLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE).limit(0);
+    }
+
+    /**
+     * Fills {@code into} with the next event. Returns false at the end of the file; throws
+     * {@link EOFException} if the file ends inside a record, as it does after a crash
+     * mid-write.
+     */
+    public boolean next(LogMessage into) throws IOException {
+        while (true) {
+            if (!ensure(1, false)) {
+                return false;
+            }
+            long recordStart = position();
+            byte tag = buffer.get();
+            if (tag == MAGIC[0]) {
+                readHeader(recordStart);
+            } else if (tag == RECORD_EVENT && inSegment) {
+                readEvent(into);
+                return true;
+            } else {
+                throw new IOException("Not a binary log record at offset " + recordStart);
+            }
+        }
+    }
+
+    /**
+     * Byte offset of the next unread record.
+     */
+    public long position() {
+        return bufferStart + buffer.position();
+    }
+
+    private void readHeader(long recordStart) throws IOException {
+        ensure(MAGIC.length, true);
+        for (int i = 1; i < MAGIC.length; i++) {
+            if (buffer.get() != MAGIC[i]) {
+                throw new IOException("Not a binary log segment at offset " + recordStart);
+            }
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary log version " + version + " at offset " + recordStart);
+        }
+        dictionary.clear();
+        lastTimestampMicros = 0;
+        lastContext = ContextMap.empty();
+        inSegment = true;
+    }
+
+    private void readEvent(LogMessage into) throws IOException {
+        lastTimestampMicros += readZigZag();
+        ensure(1, true);
+        int level = buffer.get();
+        if (level < 0 || level >= LEVELS.length) {
+            throw new IOException("Unknown level " + level + " at offset " + (position() - 1));
+        }
+        String loggerName = readRef();
+        String threadName = readRef();
+        String template = readRef();
+        String scope = readRef();
+
+        int argumentCount = readCount();
+        if (arguments.length < argumentCount) {
+            arguments = new Object[Math.max(argumentCount, arguments.length * 2)];
+        }
+        for (int i = 0; i < argumentCount; i++) {
+            arguments[i] = readArgument();
+        }
+
+        int contextMarker = readCount();
+        ContextMap context = ContextMap.empty();
+        if (contextMarker == CONTEXT_SAME) {
+            context = lastContext;
+        } else {
+            for (int i = CONTEXT_FIRST_SIZE; i < contextMarker; i++) {
+                String key = readRef();
+                context = context.with(key, readLiteral());
+            }
+        }
+        lastContext = context;
+        String stackTrace = readRef();
+
+        into.populate(lastTimestampMicros, LEVELS[level], loggerName, template, null,
+                stackTrace == null ? null : new RecordedThrowable(stackTrace));
+        into.setThreadName(threadName);
+        into.setScope(scope);
+        into.setContext(context);
+        for (int i = 0; i < argumentCount; i++) {
+            into.addArgument(arguments[i]);
+            arguments[i] = null;
+        }
+    }
+
+    private int readCount() throws IOException {
+        long count = readVarint();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("Corrupt count " + count + " at offset " + position());
+        }
+        return (int) count;
+    }
+
+    private Object readArgument() throws IOException {
+        ensure(1, true);
+        byte type = buffer.get();
+        switch (type) {
+            case ARG_NULL:
+                return null;
+            case ARG_STRING:
+                return readLiteral();
+            case ARG_INT:
+                return (int) readZigZag();
+            case ARG_LONG:
+                return readZigZag();
+            case ARG_DOUBLE:
+                ensure(Double.BYTES, true);
+                return buffer.getDouble();
+            case ARG_FLOAT:
+                ensure(Float.BYTES, true);
+                return buffer.getFloat();
+            case ARG_TRUE:
+                return Boolean.TRUE;
+            case ARG_FALSE:
+                return Boolean.FALSE;
+            case ARG_CHAR:
+                return (char) readVarint();
+            case ARG_SHORT:
+                return (short) readZigZag();
+            case ARG_BYTE:
+                ensure(1, true);
+                return buffer.get();
+            default:
+                throw new IOException("Unknown argument type " + type + " at offset " + (position() - 1));
+        }
+    }
+
+    private String readRef() throws IOException {
+        long ref = readVarint();
+        if (ref == REF_NULL) {
+            return null;
+        }
+        if (ref == REF_DEFINE) {
+            String text = readLiteral();
+            dictionary.add(text);
+            return text;
+        }
+        if (ref == REF_LITERAL) {
+            return readLiteral();
+        }
+        long id = ref - REF_FIRST_ID;
+        if (id >= dictionary.size()) {
+            throw new IOException("Undefined dictionary entry " + id + " at offset " + position());
+        }
+        return dictionary.get((int) id);
+    }
+
+    private String readLiteral() throws IOException {
+        long length = readVarint();
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IOException("Corrupt string length " + length + " at offset " + position());
+        }
+        ensure((int) length, true);
+        String text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), (int) length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + (int) length);
+        return text;
+    }
+
+    private long readZigZag() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            ensure(1, true);
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt varint at offset " + position());
+    }
+
+    /**
+     * Makes sure {@code count} bytes can be read from the buffer, refilling (and growing) it
+     * from the file as needed. At the end of the file returns false, or throws if
+     * {@code required}.
+     */
+    private boolean ensure(int count, boolean required) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        if (count > buffer.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(count, buffer.capacity() * 2));
+            bufferStart += buffer.position();
+            grown.put(buffer).flip();
+            buffer = grown;
+        } else {
+            bufferStart += buffer.position();
+            buffer.compact().flip();
+        }
+        while (buffer.remaining() < count && !endOfFile) {
+            int readFrom = buffer.limit();
+            buffer.position(readFrom).limit(buffer.capacity());
+            int read = channel.read(buffer);
+            buffer.limit(buffer.position()).position(0);
+            if (read < 0) {
+                endOfFile = true;
+            }
+        }
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        if (required || buffer.hasRemaining()) {
+            throw new EOFException("Binary log ends inside a record at offset " + position());
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Stands in for a logged throwable; prints the stack trace text that was recorded.
+     */
+    public static final class RecordedThrowable extends Throwable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String stackTrace;
+
+        RecordedThrowable(String stackTrace) {
+            super(null, null, false, false);
+            this.stackTrace = stackTrace;
+        }
+
+        @Override
+        public void printStackTrace(PrintWriter out) {
+            out.print(stackTrace);
+        }
+
+        @Override
+        public String toString() {
+            int end = stackTrace.indexOf('\n');
+            return end < 0 ? stackTrace : stackTrace.substring(0, end).stripTrailing();
+        }
+    }
+}
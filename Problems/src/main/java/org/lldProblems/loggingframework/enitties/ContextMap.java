@@ -0,0 +1,115 @@
+package org.lldProblems.loggingframework.enitties;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable string map for diagnostic context. Every change returns a new map and leaves the
+ * old one untouched, so a log event can keep a reference to the map that was current when it
+ * was logged instead of copying it. Entries are kept in insertion order in two arrays, which is
+ * compact and quick to scan for the handful of keys a context usually has.
+ */
+public final class ContextMap {
+
+    private static final String[] NONE = new String[0];
+    private static final ContextMap EMPTY = new ContextMap(NONE, NONE);
+
+    private final String[] keys;
+    private final String[] values;
+
+    private ContextMap(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public static ContextMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Map with {@code key} set to {@code value}; a null value removes the key.
+     */
+    public ContextMap with(String key, String value) {
+        if (value == null) {
+            return without(key);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (value.equals(values[index])) {
+                return this;
+            }
+            String[] updated = values.clone();
+            updated[index] = value;
+            return new ContextMap(keys, updated);
+        }
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        String[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new ContextMap(newKeys, newValues);
+    }
+
+    public ContextMap without(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        String[] newKeys = new String[keys.length - 1];
+        String[] newValues = new String[values.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+        return new ContextMap(newKeys, newValues);
+    }
+
+    public String get(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    private int indexOf(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Index based access so formatters can walk the entries without an iterator.
+     */
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    public String valueAt(int index) {
+        return values[index];
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
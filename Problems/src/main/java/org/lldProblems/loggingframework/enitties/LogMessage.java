@@ -1,28 +1,195 @@
 package org.lldProblems.loggingframework.enitties;
 
 import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.appender.LogAppender;
+import org.lldProblems.loggingframework.strategies.formatter.MessageFormatter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Supplier;
 
+/**
+ * A log event. The message text is rendered lazily on first {@link #getMessage()},
+ * which for async processors happens on the consumer thread, so arguments and
+ * suppliers must be safe to read from there.
+ * <p>
+ * Events are either built once per call through the constructors, or, in garbage-free
+ * mode, preallocated by the processor and refilled with {@link #populate} for every call.
+ * A reused event must not be retained after the appender call that received it returns.
+ */
 public final class LogMessage {
 
-    private final LocalDateTime timeStamp;
-    private final LogLevel loglevel;
-    private final String loggerName;
-    private final String threadName;
-    private final String message;
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final int INITIAL_ARGUMENT_CAPACITY = 4;
 
+    private long timestampMicros;
+    private LogLevel loglevel;
+    private String loggerName;
+    private String threadName;
+    private String messagePattern;
+    private Object[] arguments = NO_ARGUMENTS;
+    private int argumentCount;
+    private boolean ownsArguments;
+    private Supplier<String> messageSupplier;
+    private Throwable throwable;
+    private String message;
+    private String scope;
+    private ContextMap context;
+    private LogAppender[] targets;
+
+    /**
+     * Empty, reusable event. Fill it with {@link #populate}.
+     */
+    public LogMessage() {
+    }
 
     public LogMessage(LogLevel loglevel, String loggerName,String message) {
-        this.threadName = Thread.currentThread().getName();
-        this.timeStamp = LocalDateTime.now();
+        populate(System.currentTimeMillis() * 1000, loglevel, loggerName, message, null, null);
+    }
+
+    public LogMessage(LogLevel loglevel, String loggerName, String messagePattern, Object[] arguments, Throwable throwable) {
+        populate(System.currentTimeMillis() * 1000, loglevel, loggerName, messagePattern, null, throwable);
+        setArguments(arguments);
+    }
+
+    public LogMessage(LogLevel loglevel, String loggerName, Supplier<String> messageSupplier, Throwable throwable) {
+        populate(System.currentTimeMillis() * 1000, loglevel, loggerName, null, messageSupplier, throwable);
+    }
+
+    /**
+     * Overwrites every field and drops the arguments.
+     */
+    public LogMessage populate(long timestampMicros, LogLevel loglevel, String loggerName, String messagePattern,
+                               Supplier<String> messageSupplier, Throwable throwable) {
+        clearArguments();
+        this.timestampMicros = timestampMicros;
         this.loglevel = loglevel;
         this.loggerName = loggerName;
-        this.message = message;
+        this.threadName = Thread.currentThread().getName();
+        this.messagePattern = messagePattern;
+        this.messageSupplier = messageSupplier;
+        this.throwable = throwable;
+        this.message = null;
+        this.scope = null;
+        this.context = null;
+        this.targets = null;
+        return this;
+    }
+
+    /**
+     * Replaces the name {@link #populate} took from the calling thread; used when events are
+     * rebuilt from a recording.
+     */
+    public LogMessage setThreadName(String threadName) {
+        this.threadName = threadName;
+        return this;
+    }
+
+    /**
+     * Name of the {@code LogScope} the event was logged in, stamped on the logging thread so
+     * that formatters on the consumer thread can show it.
+     */
+    public LogMessage setScope(String scope) {
+        this.scope = scope;
+        return this;
+    }
+
+    /**
+     * The logging thread's diagnostic context, kept by reference since it is immutable.
+     */
+    public LogMessage setContext(ContextMap context) {
+        this.context = context;
+        return this;
+    }
+
+    /**
+     * Appenders the event goes to, for processors that queue the event itself rather than
+     * a wrapper around it.
+     */
+    public LogMessage setTargets(LogAppender[] targets) {
+        this.targets = targets;
+        return this;
+    }
+
+    /**
+     * Uses the caller's array as is. Only meant for events built once per call.
+     */
+    public LogMessage setArguments(Object[] arguments) {
+        clearArguments();
+        if (arguments != null) {
+            this.arguments = arguments;
+            this.argumentCount = arguments.length;
+            this.ownsArguments = false;
+        }
+        return this;
+    }
+
+    /**
+     * Appends one argument into storage owned by this event, growing it on first use only.
+     */
+    public LogMessage addArgument(Object argument) {
+        if (!ownsArguments || argumentCount == arguments.length) {
+            Object[] grown = new Object[Math.max(INITIAL_ARGUMENT_CAPACITY, arguments.length * 2)];
+            System.arraycopy(arguments, 0, grown, 0, argumentCount);
+            arguments = grown;
+            ownsArguments = true;
+        }
+        arguments[argumentCount++] = argument;
+        return this;
+    }
+
+    public LogMessage copyFrom(LogMessage other) {
+        populate(other.timestampMicros, other.loglevel, other.loggerName, other.messagePattern,
+                other.messageSupplier, other.throwable);
+        this.threadName = other.threadName;
+        this.message = other.message;
+        this.scope = other.scope;
+        this.context = other.context;
+        for (int i = 0; i < other.argumentCount; i++) {
+            addArgument(other.arguments[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Releases every reference so a pooled event does not keep arguments reachable.
+     */
+    public void clear() {
+        clearArguments();
+        this.loggerName = null;
+        this.messagePattern = null;
+        this.messageSupplier = null;
+        this.throwable = null;
+        this.message = null;
+        this.scope = null;
+        this.context = null;
+        this.targets = null;
+    }
+
+    private void clearArguments() {
+        if (ownsArguments) {
+            for (int i = 0; i < argumentCount; i++) {
+                arguments[i] = null;
+            }
+        } else {
+            arguments = NO_ARGUMENTS;
+        }
+        argumentCount = 0;
     }
 
     public LocalDateTime getTimeStamp() {
-        return timeStamp;
+        return LocalDateTime.ofInstant(
+                Instant.ofEpochSecond(timestampMicros / 1_000_000, (timestampMicros % 1_000_000) * 1000),
+                ZoneId.systemDefault());
+    }
+
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMicros / 1000;
     }
 
     public LogLevel getLoglevel() {
@@ -38,6 +205,71 @@ public final class LogMessage {
     }
 
     public String getMessage() {
-        return message;
+        String rendered = message;
+        if (rendered == null) {
+            rendered = render();
+            message = rendered;
+        }
+        return rendered;
+    }
+
+    public String getMessagePattern() {
+        return messagePattern;
+    }
+
+    /**
+     * Backing argument array; only the first {@link #getArgumentCount()} entries belong to this event.
+     */
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public ContextMap getContext() {
+        return context == null ? ContextMap.empty() : context;
+    }
+
+    public LogAppender[] getTargets() {
+        return targets;
+    }
+
+    public Supplier<String> getMessageSupplier() {
+        return messageSupplier;
+    }
+
+    /**
+     * The explicit throwable, or a trailing {@link Throwable} argument that no
+     * placeholder consumed.
+     */
+    public Throwable getThrowable() {
+        if (throwable == null && argumentCount > 0
+                && arguments[argumentCount - 1] instanceof Throwable trailing
+                && MessageFormatter.countPlaceholders(messagePattern) < argumentCount) {
+            throwable = trailing;
+        }
+        return throwable;
+    }
+
+    private String render() {
+        if (messageSupplier != null) {
+            try {
+                return messageSupplier.get();
+            } catch (RuntimeException e) {
+                return "[FAILED message supplier: " + e + "]";
+            }
+        }
+        if (argumentCount == 0 || messagePattern == null) {
+            return messagePattern;
+        }
+        StringBuilder out = new StringBuilder(messagePattern.length() + 16 * argumentCount);
+        MessageFormatter.formatTo(out, messagePattern, arguments, argumentCount);
+        return out.toString();
     }
 }
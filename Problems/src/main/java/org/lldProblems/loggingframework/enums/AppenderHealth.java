@@ -0,0 +1,13 @@
+package org.lldProblems.loggingframework.enums;
+
+/**
+ * Circuit-breaker state of an isolated appender.
+ */
+public enum AppenderHealth {
+    /** Writes complete within the latency threshold. */
+    HEALTHY,
+    /** Breaker is open: the sink was too slow or failing, events are dropped until the open period ends. */
+    DEGRADED,
+    /** Open period is over, the next writes decide whether the breaker closes or opens again. */
+    RECOVERING
+}
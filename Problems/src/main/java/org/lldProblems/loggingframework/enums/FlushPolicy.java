@@ -0,0 +1,16 @@
+package org.lldProblems.loggingframework.enums;
+
+/**
+ * When a buffering appender writes its buffer out. A full buffer is always written,
+ * the other triggers are opt-in and can be combined.
+ */
+public enum FlushPolicy {
+    /** Only when the buffer cannot take the next record. */
+    BUFFER_FULL,
+    /** Once the configured interval has passed since the last write, checked on every append and batch end and by a timer. */
+    INTERVAL,
+    /** Right after an ERROR or FATAL record. */
+    ERROR,
+    /** At the end of every batch drained by the async processor. */
+    END_OF_BATCH
+}
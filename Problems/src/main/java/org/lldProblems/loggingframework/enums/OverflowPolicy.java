@@ -0,0 +1,17 @@
+package org.lldProblems.loggingframework.enums;
+
+/**
+ * What a bounded async processor does with an event when its queue is full.
+ */
+public enum OverflowPolicy {
+    /** Wait for the consumer to make room. Nothing is lost, callers slow down. */
+    BLOCK,
+    /** Discard the event being logged. */
+    DROP_NEWEST,
+    /** Evict the oldest queued event to make room for the new one. */
+    DROP_OLDEST,
+    /** Discard DEBUG/INFO events; WARN and above evict a queued DEBUG/INFO event or wait. */
+    DISCARD_BELOW_WARN,
+    /** The calling thread writes the queued events and then its own, in order, while the consumer waits. */
+    SYNCHRONOUS
+}
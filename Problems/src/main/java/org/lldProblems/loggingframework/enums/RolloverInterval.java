@@ -0,0 +1,28 @@
+package org.lldProblems.loggingframework.enums;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time window after which a rolling appender starts a new file.
+ */
+public enum RolloverInterval {
+    NONE(null, "yyyy-MM-dd"),
+    HOURLY(ChronoUnit.HOURS, "yyyy-MM-dd-HH"),
+    DAILY(ChronoUnit.DAYS, "yyyy-MM-dd");
+
+    private final ChronoUnit unit;
+    private final String datePattern;
+
+    RolloverInterval(ChronoUnit unit, String datePattern) {
+        this.unit = unit;
+        this.datePattern = datePattern;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    public String getDatePattern() {
+        return datePattern;
+    }
+}
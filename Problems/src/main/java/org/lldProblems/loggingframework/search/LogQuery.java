@@ -0,0 +1,154 @@
+package org.lldProblems.loggingframework.search;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * What {@link LogSearch} looks for. Every criterion is optional; a record has to match all the
+ * ones that are set.
+ * <p>
+ * Times are compared as the raw {@code yyyy-MM-dd HH:mm:ss.SSS} text at the start of each
+ * record, which sorts like the time itself, so they are given in the wall-clock time of the
+ * zone the file was written in. {@code from} is inclusive and {@code to} exclusive; a shorter
+ * prefix such as {@code 2026-10-18 12} stands for the start of that hour.
+ */
+public final class LogQuery {
+
+    static final int TIMESTAMP_LENGTH = 23;
+    private static final String EARLIEST = "0000-01-01 00:00:00.000";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final LogLevel minLevel;
+    private final byte[] loggerPrefix;
+    private final byte[] from;
+    private final byte[] to;
+    private final byte[] substring;
+    private final Pattern regex;
+
+    private LogQuery(Builder builder) {
+        this.minLevel = builder.minLevel;
+        this.loggerPrefix = bytesOf(builder.loggerPrefix);
+        this.from = builder.from;
+        this.to = builder.to;
+        this.substring = bytesOf(builder.substring);
+        this.regex = builder.regex;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    LogLevel getMinLevel() {
+        return minLevel;
+    }
+
+    byte[] getLoggerPrefix() {
+        return loggerPrefix;
+    }
+
+    byte[] getFrom() {
+        return from;
+    }
+
+    byte[] getTo() {
+        return to;
+    }
+
+    byte[] getSubstring() {
+        return substring;
+    }
+
+    Pattern getRegex() {
+        return regex;
+    }
+
+    private static byte[] bytesOf(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] timestampBytes(String wallClock) {
+        if (wallClock.length() > TIMESTAMP_LENGTH) {
+            throw new IllegalArgumentException("Expected yyyy-MM-dd HH:mm:ss.SSS or a prefix of it: " + wallClock);
+        }
+        String completed = wallClock + EARLIEST.substring(wallClock.length());
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+            char expected = EARLIEST.charAt(i);
+            char actual = completed.charAt(i);
+            boolean valid = Character.isDigit(expected) ? actual >= '0' && actual <= '9' : actual == expected;
+            if (!valid) {
+                throw new IllegalArgumentException("Expected yyyy-MM-dd HH:mm:ss.SSS or a prefix of it: " + wallClock);
+            }
+        }
+        return completed.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static class Builder {
+        private LogLevel minLevel;
+        private String loggerPrefix;
+        private byte[] from;
+        private byte[] to;
+        private String substring;
+        private Pattern regex;
+
+        private Builder() {
+        }
+
+        /**
+         * Records at this level or above.
+         */
+        public Builder minLevel(LogLevel minLevel) {
+            this.minLevel = minLevel;
+            return this;
+        }
+
+        public Builder loggerPrefix(String loggerPrefix) {
+            this.loggerPrefix = loggerPrefix;
+            return this;
+        }
+
+        public Builder from(String wallClock) {
+            this.from = timestampBytes(wallClock);
+            return this;
+        }
+
+        public Builder to(String wallClock) {
+            this.to = timestampBytes(wallClock);
+            return this;
+        }
+
+        public Builder from(Instant instant, ZoneId zone) {
+            return from(LocalDateTime.ofInstant(instant, zone).format(TIMESTAMP_FORMATTER));
+        }
+
+        public Builder to(Instant instant, ZoneId zone) {
+            return to(LocalDateTime.ofInstant(instant, zone).format(TIMESTAMP_FORMATTER));
+        }
+
+        /**
+         * Plain text anywhere in the record, stack trace included; matched on the raw bytes.
+         */
+        public Builder contains(String substring) {
+            this.substring = substring;
+            return this;
+        }
+
+        /**
+         * Regular expression found anywhere in the record. Only records that pass every other
+         * criterion are decoded to text for it.
+         */
+        public Builder matches(String regex) {
+            this.regex = Pattern.compile(regex);
+            return this;
+        }
+
+        public LogQuery build() {
+            return new LogQuery(this);
+        }
+    }
+}
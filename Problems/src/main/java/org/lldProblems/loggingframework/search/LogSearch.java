@@ -0,0 +1,213 @@
+package org.lldProblems.loggingframework.search;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Searches text log files written with {@code SimpleTextFormatter}, in parallel.
+ * <pre>
+ * java org.lldProblems.loggingframework.search.LogSearch app.log app.log.1 \
+ *      [--level WARN] [--logger com.example.orders] [--from "2026-10-18 12:00"] [--to "2026-10-18 12:30"]
+ *      [--contains timeout] [--regex "order \d+ failed"]
+ * </pre>
+ * Each file is memory-mapped in chunks that start at record boundaries, so a multi-line record
+ * with a stack trace is never split. The chunks are searched on a fork-join pool and the
+ * matching records are written in file order as soon as every chunk before them is done; only
+ * a bounded number of chunks is in flight at a time.
+ */
+public final class LogSearch {
+
+    static final int DEFAULT_CHUNK_SIZE = 32 * 1024 * 1024;
+    private static final int BOUNDARY_WINDOW = 64 * 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    private final LogQuery query;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public LogSearch(LogQuery query) {
+        this(query, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public LogSearch(LogQuery query, ForkJoinPool pool, int chunkSize) {
+        this.query = query;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        LogQuery.Builder query = LogQuery.builder();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (!option.startsWith("--")) {
+                files.add(Path.of(option));
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--level" -> query.minLevel(LogLevel.valueOf(value.toUpperCase()));
+                case "--logger" -> query.loggerPrefix(value);
+                case "--from" -> query.from(value);
+                case "--to" -> query.to(value);
+                case "--contains" -> query.contains(value);
+                case "--regex" -> query.matches(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: LogSearch <file>... [--level L] [--logger prefix] [--from time] [--to time]"
+                    + " [--contains text] [--regex pattern]");
+            return;
+        }
+        long matches = new LogSearch(query.build()).search(files, System.out);
+        System.err.println(matches + " matching records");
+    }
+
+    /**
+     * Writes every matching record of {@code files}, in order, to {@code out}, which is flushed
+     * but not closed. Returns the number of matching records.
+     */
+    public long search(List<Path> files, OutputStream out) throws IOException {
+        OutputStream sink = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        RecordMatcher matcher = new RecordMatcher(query);
+        byte[] copy = new byte[OUTPUT_BUFFER_SIZE];
+        long matches = 0;
+        for (Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                matches += search(channel, matcher, sink, copy);
+            }
+        }
+        sink.flush();
+        return matches;
+    }
+
+    private long search(FileChannel channel, RecordMatcher matcher, OutputStream sink, byte[] copy) throws IOException {
+        long size = channel.size();
+        int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+        Deque<ForkJoinTask<Matches>> inFlight = new ArrayDeque<>();
+        long matches = 0;
+
+        long start = 0;
+        while (start < size || !inFlight.isEmpty()) {
+            while (start < size && inFlight.size() < maxInFlight) {
+                long end = start + chunkSize >= size ? size : nextRecordStart(channel, start + chunkSize, size);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                inFlight.add(pool.submit(new ChunkSearch(chunk, matcher)));
+                start = end;
+            }
+            Matches done = inFlight.poll().join();
+            matches += done.write(sink, copy);
+        }
+        return matches;
+    }
+
+    /**
+     * First record start at or after {@code from}, read through a small window so the chunk
+     * boundary never falls inside a record.
+     */
+    private static long nextRecordStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(BOUNDARY_WINDOW);
+        // Overlap successive windows so a timestamp is never cut by the window edge.
+        int overlap = LogQuery.TIMESTAMP_LENGTH + 2;
+        for (long position = from - 1; position < size; position += BOUNDARY_WINDOW - overlap) {
+            window.clear();
+            channel.read(window, position);
+            window.flip();
+            int limit = window.limit();
+            for (int i = 0; i + 1 < limit; i++) {
+                if (window.get(i) == '\n' && RecordMatcher.isRecordStart(window, i + 1, limit)) {
+                    return position + i + 1;
+                }
+            }
+            if (position + limit >= size) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * One chunk per task and no forking, so a plain {@link Callable} is enough.
+     */
+    private static final class ChunkSearch implements Callable<Matches> {
+
+        private final MappedByteBuffer chunk;
+        private final RecordMatcher matcher;
+
+        private ChunkSearch(MappedByteBuffer chunk, RecordMatcher matcher) {
+            this.chunk = chunk;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public Matches call() {
+            Matches matches = new Matches(chunk);
+            int limit = chunk.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = RecordMatcher.recordEnd(chunk, start, limit);
+                // Lines before the first timestamp (a file starting mid-record) are skipped.
+                if (RecordMatcher.isRecordStart(chunk, start, limit) && matcher.matches(chunk, start, end)) {
+                    matches.add(start, end);
+                }
+                start = end;
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Offsets of the matching records in one chunk, kept as pairs so nothing is copied until
+     * the records are written.
+     */
+    private static final class Matches {
+
+        private final ByteBuffer chunk;
+        private int[] bounds = new int[16];
+        private int size;
+
+        private Matches(ByteBuffer chunk) {
+            this.chunk = chunk;
+        }
+
+        private void add(int start, int end) {
+            if (size + 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[size++] = start;
+            bounds[size++] = end;
+        }
+
+        private long write(OutputStream sink, byte[] copy) throws IOException {
+            for (int i = 0; i < size; i += 2) {
+                for (int from = bounds[i], end = bounds[i + 1]; from < end; ) {
+                    int length = Math.min(copy.length, end - from);
+                    chunk.get(from, copy, 0, length);
+                    sink.write(copy, 0, length);
+                    from += length;
+                }
+            }
+            return size / 2;
+        }
+    }
+}
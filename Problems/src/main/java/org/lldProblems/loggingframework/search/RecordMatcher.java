@@ -0,0 +1,188 @@
+package org.lldProblems.loggingframework.search;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the {@code SimpleTextFormatter} layout straight from mapped bytes:
+ * {@code yyyy-MM-dd HH:mm:ss.SSS [thread] [scope] {context} LEVEL - logger: message}, followed
+ * by stack trace lines that do not start with a timestamp. Criteria are checked cheapest first,
+ * so most records are rejected after comparing a few bytes of the timestamp or level, and only
+ * candidates for a regular expression are decoded to text.
+ */
+final class RecordMatcher {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final byte[][] LEVEL_BYTES = new byte[LEVELS.length][];
+    private static final byte[] TIMESTAMP_SHAPE = "0000-00-00 00:00:00.000 ".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (LogLevel level : LEVELS) {
+            LEVEL_BYTES[level.ordinal()] = level.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final LogQuery query;
+
+    RecordMatcher(LogQuery query) {
+        this.query = query;
+    }
+
+    /**
+     * True if a record starts at {@code at}: the bytes there have the timestamp's shape.
+     */
+    static boolean isRecordStart(ByteBuffer bytes, int at, int limit) {
+        if (limit - at < TIMESTAMP_SHAPE.length) {
+            return false;
+        }
+        for (int i = 0; i < TIMESTAMP_SHAPE.length; i++) {
+            byte expected = TIMESTAMP_SHAPE[i];
+            byte actual = bytes.get(at + i);
+            if (expected == '0' ? actual < '0' || actual > '9' : actual != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * End (exclusive) of the record starting at {@code start}: just past the last line before
+     * the next record start, or {@code limit}.
+     */
+    static int recordEnd(ByteBuffer bytes, int start, int limit) {
+        int i = start;
+        while (i < limit) {
+            if (bytes.get(i++) == '\n' && (i == limit || isRecordStart(bytes, i, limit))) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    boolean matches(ByteBuffer bytes, int start, int end) {
+        byte[] from = query.getFrom();
+        if (from != null && compare(bytes, start, from) < 0) {
+            return false;
+        }
+        byte[] to = query.getTo();
+        if (to != null && compare(bytes, start, to) >= 0) {
+            return false;
+        }
+        if (query.getMinLevel() != null || query.getLoggerPrefix() != null) {
+            if (!matchesHeader(bytes, start, lineEnd(bytes, start, end))) {
+                return false;
+            }
+        }
+        byte[] substring = query.getSubstring();
+        if (substring != null && indexOf(bytes, start, end, substring) < 0) {
+            return false;
+        }
+        if (query.getRegex() != null) {
+            byte[] text = new byte[end - start];
+            bytes.get(start, text);
+            return query.getRegex().matcher(new String(text, StandardCharsets.UTF_8)).find();
+        }
+        return true;
+    }
+
+    private boolean matchesHeader(ByteBuffer bytes, int start, int lineEnd) {
+        // Skip "[thread] ", then any "[scope] " and "{context} ".
+        int i = skipGroup(bytes, start + LogQuery.TIMESTAMP_LENGTH + 1, lineEnd, '[', ']');
+        if (i < 0) {
+            return false;
+        }
+        int next = skipGroup(bytes, i, lineEnd, '[', ']');
+        i = next < 0 ? i : next;
+        next = skipGroup(bytes, i, lineEnd, '{', '}');
+        i = next < 0 ? i : next;
+
+        int levelEnd = indexOf(bytes, i, lineEnd, (byte) ' ');
+        if (levelEnd < 0) {
+            return false;
+        }
+        LogLevel level = levelOf(bytes, i, levelEnd);
+        if (level == null || (query.getMinLevel() != null && !level.isGreaterOrEqual(query.getMinLevel()))) {
+            return false;
+        }
+        byte[] prefix = query.getLoggerPrefix();
+        int loggerStart = levelEnd + 3;
+        return prefix == null || (loggerStart + prefix.length <= lineEnd && regionEquals(bytes, loggerStart, prefix));
+    }
+
+    /**
+     * Position after {@code open ... close} and the space that follows, or -1 if there is no
+     * such group at {@code at}.
+     */
+    private static int skipGroup(ByteBuffer bytes, int at, int lineEnd, char open, char close) {
+        if (at >= lineEnd || bytes.get(at) != open) {
+            return -1;
+        }
+        for (int i = at + 1; i + 1 < lineEnd; i++) {
+            if (bytes.get(i) == close && bytes.get(i + 1) == ' ') {
+                return i + 2;
+            }
+        }
+        return -1;
+    }
+
+    private static LogLevel levelOf(ByteBuffer bytes, int start, int end) {
+        for (LogLevel level : LEVELS) {
+            byte[] name = LEVEL_BYTES[level.ordinal()];
+            if (name.length == end - start && regionEquals(bytes, start, name)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares the record's timestamp text with {@code timestamp}.
+     */
+    static int compare(ByteBuffer bytes, int at, byte[] timestamp) {
+        for (int i = 0; i < timestamp.length; i++) {
+            int difference = bytes.get(at + i) - timestamp[i];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean regionEquals(ByteBuffer bytes, int at, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes.get(at + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lineEnd(ByteBuffer bytes, int start, int end) {
+        int newline = indexOf(bytes, start, end, (byte) '\n');
+        return newline < 0 ? end : newline;
+    }
+
+    private static int indexOf(ByteBuffer bytes, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (bytes.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(ByteBuffer bytes, int start, int end, byte[] needle) {
+        if (needle.length == 0) {
+            return start;
+        }
+        byte first = needle[0];
+        for (int i = start, last = end - needle.length; i <= last; i++) {
+            if (bytes.get(i) == first && regionEquals(bytes, i, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,227 @@
+package org.lldProblems.loggingframework.search;
+
+import org.lldProblems.loggingframework.strategies.appender.TimeIndexWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reads the records of a time range from a text log that {@code FileAppender} wrote with a
+ * time index, without scanning the file from the start.
+ * <p>
+ * The index is loaded once. Because buckets are not strictly time ordered, the reader keeps
+ * the running maximum and the trailing minimum of the bucket timestamps; both are monotonic, so
+ * the first bucket that can hold an event at or after {@code from}, and the first one after
+ * which every event is at or after {@code to}, are found by binary search. Only the buckets in
+ * between whose own range overlaps the query are mapped and scanned. Parts of the file the
+ * index does not cover (no sidecar, or a tail written after the last index entry) are always
+ * scanned.
+ */
+public final class TimeIndexedReader implements Closeable {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final FileChannel channel;
+    private final ZoneId zone;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] minTimestamps;
+    private final long[] maxTimestamps;
+    private final long[] runningMax;
+    private final long[] trailingMin;
+
+    /**
+     * {@code zone} is the one the file's timestamps were written in.
+     */
+    public TimeIndexedReader(Path logFile, ZoneId zone) throws IOException {
+        this.channel = FileChannel.open(logFile, StandardOpenOption.READ);
+        this.zone = zone;
+        long size = channel.size();
+
+        Path indexFile = TimeIndexWriter.indexPathFor(logFile);
+        ByteBuffer index = ByteBuffer.wrap(Files.exists(indexFile) ? Files.readAllBytes(indexFile) : new byte[0]);
+        int capacity = 2 * (index.remaining() / TimeIndexWriter.ENTRY_SIZE) + 1;
+        long[] start = new long[capacity];
+        long[] end = new long[capacity];
+        long[] min = new long[capacity];
+        long[] max = new long[capacity];
+        int count = 0;
+        long covered = 0;
+        while (index.remaining() >= TimeIndexWriter.ENTRY_SIZE) {
+            long entryStart = index.getLong();
+            long entryEnd = index.getLong();
+            long entryMin = index.getLong();
+            long entryMax = index.getLong();
+            if (entryStart < covered || entryEnd > size || entryEnd <= entryStart) {
+                continue;
+            }
+            if (entryStart > covered) {
+                count = addUnindexed(start, end, min, max, count, covered, entryStart);
+            }
+            start[count] = entryStart;
+            end[count] = entryEnd;
+            min[count] = entryMin;
+            max[count] = entryMax;
+            count++;
+            covered = entryEnd;
+        }
+        if (covered < size) {
+            count = addUnindexed(start, end, min, max, count, covered, size);
+        }
+
+        this.starts = Arrays.copyOf(start, count);
+        this.ends = Arrays.copyOf(end, count);
+        this.minTimestamps = Arrays.copyOf(min, count);
+        this.maxTimestamps = Arrays.copyOf(max, count);
+        this.runningMax = new long[count];
+        this.trailingMin = new long[count];
+        for (int i = 0; i < count; i++) {
+            runningMax[i] = i == 0 ? maxTimestamps[i] : Math.max(runningMax[i - 1], maxTimestamps[i]);
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            trailingMin[i] = i == count - 1 ? minTimestamps[i] : Math.min(trailingMin[i + 1], minTimestamps[i]);
+        }
+    }
+
+    public TimeIndexedReader(Path logFile) throws IOException {
+        this(logFile, ZoneId.systemDefault());
+    }
+
+    private static int addUnindexed(long[] start, long[] end, long[] min, long[] max, int count, long from, long to) {
+        start[count] = from;
+        end[count] = to;
+        min[count] = Long.MIN_VALUE;
+        max[count] = Long.MAX_VALUE;
+        return count + 1;
+    }
+
+    /**
+     * Offset of the first record that can be at or after {@code from}; everything before it is
+     * known to be earlier.
+     */
+    public long seek(Instant from) {
+        int first = firstBucket(toMicros(from));
+        return first < starts.length ? starts[first] : endOfIndexedFile();
+    }
+
+    /**
+     * Passes every record with a timestamp in {@code [from, to)}, in file order, stack trace
+     * included, to {@code records}. Times have the millisecond precision of the text layout.
+     * Returns the number of records passed.
+     */
+    public long read(Instant from, Instant to, Consumer<String> records) throws IOException {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        byte[] fromText = LogQuery.timestampBytes(format(from));
+        byte[] toText = LogQuery.timestampBytes(format(to));
+
+        int first = firstBucket(fromMicros);
+        int last = firstBucketFrom(toMicros, first);
+        long count = 0;
+        for (int i = first; i < last; i++) {
+            if (maxTimestamps[i] < fromMicros || minTimestamps[i] >= toMicros) {
+                continue;
+            }
+            count += scan(starts[i], ends[i], fromText, toText, records);
+        }
+        return count;
+    }
+
+    /**
+     * Maps {@code [from, to)} a window at a time; indexed buckets fit in one, unindexed parts
+     * of the file may not.
+     */
+    private long scan(long from, long to, byte[] fromText, byte[] toText, Consumer<String> records) throws IOException {
+        long count = 0;
+        long position = from;
+        while (position < to) {
+            long windowEnd = Math.min(to, position + LogSearch.DEFAULT_CHUNK_SIZE);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+            int limit = window.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = RecordMatcher.recordEnd(window, start, limit);
+                if (end == limit && windowEnd < to && start > 0) {
+                    // The record may go on past the window: map again from its start.
+                    break;
+                }
+                if (RecordMatcher.isRecordStart(window, start, limit)
+                        && RecordMatcher.compare(window, start, fromText) >= 0
+                        && RecordMatcher.compare(window, start, toText) < 0) {
+                    byte[] text = new byte[end - start];
+                    window.get(start, text);
+                    records.accept(new String(text, StandardCharsets.UTF_8));
+                    count++;
+                }
+                start = end;
+            }
+            position += start;
+        }
+        return count;
+    }
+
+    /**
+     * First bucket whose running maximum reaches {@code micros}.
+     */
+    private int firstBucket(long micros) {
+        int low = 0;
+        int high = runningMax.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runningMax[middle] < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First bucket at or after {@code from} from which on every event is at or after {@code micros}.
+     */
+    private int firstBucketFrom(long micros, int from) {
+        int low = from;
+        int high = trailingMin.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (trailingMin[middle] < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long endOfIndexedFile() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MILLIS).toEpochMilli() * 1000;
+    }
+
+    private String format(Instant instant) {
+        return LocalDateTime.ofInstant(instant, zone).format(TIMESTAMP_FORMATTER);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,530 @@
+package org.lldProblems.loggingframework.strategies.appender;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.AppenderHealth;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.enums.OverflowPolicy;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs one appender on its own worker thread behind its own bounded queue, so a slow
+ * sink only delays itself and not the processor or the other appenders.
+ * <p>
+ * Every write and flush of the wrapped appender is timed. After {@code failureThreshold}
+ * consecutive writes slower than {@code slowAppendMillis} (or failing), or when a single
+ * write has been stuck for that long in total, the circuit opens: the appender is
+ * {@link AppenderHealth#DEGRADED} and events are dropped and counted for
+ * {@code openMillis}. After that the next write decides whether it is healthy again.
+ * <p>
+ * Events are copied on enqueue, so wrapping works with garbage-free processors whose
+ * events are reused once {@link #append} returns.
+ * <p>
+ * The wrapped appender is only called under {@code writeLock}, by the worker or, with
+ * {@link OverflowPolicy#SYNCHRONOUS}, by a caller that found the queue full, so the write
+ * timing and the slow-write count have one writer at a time. The worker waits for events
+ * outside the lock and is woken by the producers.
+ */
+public class AsyncAppender implements LogAppender {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long DEFAULT_SLOW_APPEND_MILLIS = 100;
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_MILLIS = 30_000;
+    private static final long DEFAULT_REPORT_INTERVAL_MILLIS = 1000;
+    private static final long STOP_TIMEOUT_MILLIS = 2000;
+    private static final long MAX_POLL_MILLIS = 100;
+    private static final long BLOCK_CHECK_MILLIS = 10;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final LogAppender delegate;
+    private final BlockingQueue<LogMessage> queue;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long slowAppendNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long reportIntervalMillis;
+    private final AtomicReference<AppenderHealth> health = new AtomicReference<>(AppenderHealth.HEALTHY);
+    private final AtomicLongArray dropped = new AtomicLongArray(LEVELS.length);
+    private final AtomicLong droppedWhileOpen = new AtomicLong();
+    private final Thread workerThread;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile long openUntilNanos;
+    private volatile long writeStartedNanos;
+    private volatile boolean running = true;
+    private volatile boolean workerWaiting;
+    private int consecutiveSlowWrites;
+    // Guarded by writeLock.
+    private boolean delegateClosed;
+
+    public AsyncAppender(LogAppender delegate) {
+        this(builder(delegate));
+    }
+
+    private AsyncAppender(Builder builder) {
+        this.delegate = builder.delegate;
+        this.capacity = builder.capacity;
+        this.queue = new ArrayBlockingQueue<>(builder.capacity);
+        this.overflowPolicy = builder.overflowPolicy;
+        this.slowAppendNanos = TimeUnit.MILLISECONDS.toNanos(builder.slowAppendMillis);
+        this.failureThreshold = builder.failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(builder.openMillis);
+        this.reportIntervalMillis = builder.reportIntervalMillis;
+        this.workerThread = new Thread(this::work, "AsyncAppender-" + delegate.getClass().getSimpleName());
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    public static Builder builder(LogAppender delegate) {
+        return new Builder(delegate);
+    }
+
+    @Override
+    public void append(LogMessage logMessage) {
+        if (!running) {
+            System.out.println("Appender is closed. Cannot append log message.");
+            return;
+        }
+        if (!admit(logMessage)) {
+            return;
+        }
+
+        LogMessage event = new LogMessage().copyFrom(logMessage);
+        if (queue.offer(event)) {
+            wakeWorker();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> put(event);
+            case DROP_NEWEST -> countDrop(event);
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) {
+                    LogMessage oldest = queue.poll();
+                    if (oldest != null) {
+                        countDrop(oldest);
+                    }
+                }
+            }
+            case DISCARD_BELOW_WARN -> {
+                if (!event.getLoglevel().isGreaterOrEqual(LogLevel.WARN)) {
+                    countDrop(event);
+                    return;
+                }
+                while (!queue.offer(event)) {
+                    if (!evictBelowWarn()) {
+                        put(event);
+                        return;
+                    }
+                }
+            }
+            case SYNCHRONOUS -> writeOnCaller(event);
+        }
+        wakeWorker();
+    }
+
+    private void wakeWorker() {
+        if (workerWaiting) {
+            LockSupport.unpark(workerThread);
+        }
+    }
+
+    /**
+     * Writes everything queued and then {@code event} on the calling thread, unless the
+     * worker made room in the meantime. Gives up once the breaker opens, like BLOCK.
+     */
+    private void writeOnCaller(LogMessage event) {
+        try {
+            while (!writeLock.tryLock(BLOCK_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkStuck(System.nanoTime());
+                if (health.get() == AppenderHealth.DEGRADED) {
+                    countOpenDrop(event);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            countDrop(event);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (delegateClosed) {
+                countDrop(event);
+                return;
+            }
+            if (queue.offer(event)) {
+                return;
+            }
+            List<LogMessage> batch = new ArrayList<>();
+            queue.drainTo(batch);
+            batch.add(event);
+            writeBatch(batch);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Producer-side breaker check. Also trips the breaker when the worker is stuck inside a
+     * single call, which it cannot report itself.
+     */
+    private boolean admit(LogMessage logMessage) {
+        long now = System.nanoTime();
+        checkStuck(now);
+        if (health.get() == AppenderHealth.DEGRADED) {
+            if (now - openUntilNanos < 0) {
+                countOpenDrop(logMessage);
+                return false;
+            }
+            health.compareAndSet(AppenderHealth.DEGRADED, AppenderHealth.RECOVERING);
+        }
+        return true;
+    }
+
+    private void checkStuck(long now) {
+        long started = writeStartedNanos;
+        if (started != 0 && now - started > slowAppendNanos * failureThreshold) {
+            open("a write has been blocked for " + TimeUnit.NANOSECONDS.toMillis(now - started) + " ms");
+        }
+    }
+
+    /**
+     * BLOCK waits for space, but gives up once the breaker opens so a hung sink cannot
+     * block the caller forever.
+     */
+    private void put(LogMessage event) {
+        try {
+            while (!queue.offer(event, BLOCK_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkStuck(System.nanoTime());
+                if (health.get() == AppenderHealth.DEGRADED) {
+                    countOpenDrop(event);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            countDrop(event);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean evictBelowWarn() {
+        Iterator<LogMessage> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            LogMessage queued = iterator.next();
+            if (!queued.getLoglevel().isGreaterOrEqual(LogLevel.WARN)) {
+                iterator.remove();
+                countDrop(queued);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void countDrop(LogMessage message) {
+        dropped.incrementAndGet(message.getLoglevel().ordinal());
+    }
+
+    private void countOpenDrop(LogMessage message) {
+        droppedWhileOpen.incrementAndGet();
+        countDrop(message);
+    }
+
+    private void work() {
+        List<LogMessage> batch = new ArrayList<>();
+        long[] reported = new long[LEVELS.length];
+        long pollMillis = Math.min(reportIntervalMillis, MAX_POLL_MILLIS);
+        long nextReport = System.currentTimeMillis() + reportIntervalMillis;
+
+        // Interrupted by close() when it gives up waiting; pending events are discarded.
+        while ((running || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            int drained;
+            writeLock.lock();
+            try {
+                drained = queue.drainTo(batch);
+                if (drained > 0) {
+                    writeBatch(batch);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextReport) {
+                    reportDrops(reported);
+                    nextReport = now + reportIntervalMillis;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (drained == 0) {
+                awaitEvent(pollMillis);
+            }
+        }
+        // Closed here rather than in close(), so it never happens under a write still in progress.
+        writeLock.lock();
+        try {
+            reportDrops(reported);
+            delegate.close();
+            delegateClosed = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Waits without taking the event, so events only leave the queue under the lock. The flag
+     * is set before the queue is checked, so a producer that queues after the check sees it.
+     */
+    private void awaitEvent(long timeoutMillis) {
+        workerWaiting = true;
+        if (queue.isEmpty() && running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        }
+        workerWaiting = false;
+    }
+
+    /**
+     * Caller holds {@code writeLock}.
+     */
+    private void writeBatch(List<LogMessage> batch) {
+        boolean written = false;
+        for (LogMessage event : batch) {
+            if (health.get() == AppenderHealth.DEGRADED) {
+                countOpenDrop(event);
+            } else {
+                written |= write(event);
+            }
+        }
+        batch.clear();
+        if (written) {
+            timedFlush();
+        }
+    }
+
+    private boolean write(LogMessage event) {
+        boolean failed = false;
+        long started = System.nanoTime();
+        writeStartedNanos = started;
+        try {
+            delegate.append(event);
+        } catch (RuntimeException e) {
+            System.out.println("Appender " + delegate.getClass().getSimpleName() + " failed, exception: " + e);
+            failed = true;
+        } finally {
+            writeStartedNanos = 0;
+        }
+        record(failed || System.nanoTime() - started > slowAppendNanos);
+        return !failed;
+    }
+
+    private void timedFlush() {
+        boolean failed = false;
+        long started = System.nanoTime();
+        writeStartedNanos = started;
+        try {
+            delegate.flush();
+        } catch (RuntimeException e) {
+            System.out.println("Appender " + delegate.getClass().getSimpleName() + " failed to flush, exception: " + e);
+            failed = true;
+        } finally {
+            writeStartedNanos = 0;
+        }
+        record(failed || System.nanoTime() - started > slowAppendNanos);
+    }
+
+    private void record(boolean slow) {
+        if (!slow) {
+            consecutiveSlowWrites = 0;
+            if (health.compareAndSet(AppenderHealth.RECOVERING, AppenderHealth.HEALTHY)) {
+                System.out.println("Appender " + delegate.getClass().getSimpleName() + " recovered.");
+            }
+            return;
+        }
+        consecutiveSlowWrites++;
+        if (health.get() == AppenderHealth.RECOVERING || consecutiveSlowWrites >= failureThreshold) {
+            int slowWrites = consecutiveSlowWrites;
+            consecutiveSlowWrites = 0;
+            open(slowWrites + " consecutive slow or failed writes");
+        }
+    }
+
+    /**
+     * Also called by producers from {@link #checkStuck}, so it leaves the writer's
+     * {@code consecutiveSlowWrites} alone.
+     */
+    private void open(String reason) {
+        openUntilNanos = System.nanoTime() + openNanos;
+        if (health.getAndSet(AppenderHealth.DEGRADED) != AppenderHealth.DEGRADED) {
+            System.out.println("Appender " + delegate.getClass().getSimpleName() + " degraded (" + reason
+                    + "), dropping events for " + TimeUnit.NANOSECONDS.toMillis(openNanos) + " ms.");
+        }
+    }
+
+    private void reportDrops(long[] reported) {
+        if (health.get() != AppenderHealth.HEALTHY) {
+            return;
+        }
+        long total = 0;
+        StringBuilder perLevel = new StringBuilder();
+        for (LogLevel level : LEVELS) {
+            long current = dropped.get(level.ordinal());
+            long delta = current - reported[level.ordinal()];
+            reported[level.ordinal()] = current;
+            if (delta > 0) {
+                total += delta;
+                perLevel.append(perLevel.length() == 0 ? "" : ", ").append(level).append('=').append(delta);
+            }
+        }
+        if (total == 0) {
+            return;
+        }
+
+        LogMessage report = new LogMessage(LogLevel.WARN, AsyncAppender.class.getSimpleName(),
+                total + " events dropped by " + delegate.getClass().getSimpleName() + " (" + perLevel + ")");
+        if (write(report)) {
+            timedFlush();
+        }
+    }
+
+    /**
+     * The worker flushes the wrapped appender after each of its own batches, so the
+     * processor's end-of-batch flush has nothing to do.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(workerThread);
+        try {
+            workerThread.join(STOP_TIMEOUT_MILLIS);
+            if (workerThread.isAlive()) {
+                System.err.println("Appender worker did not terminate in the specified time.");
+                // Forcibly stop the worker, pending events are discarded. It closes the
+                // wrapped appender once its current write returns.
+                workerThread.interrupt();
+                workerThread.join(STOP_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            workerThread.interrupt();
+            // Preserve interrupt status
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public AppenderHealth getHealth() {
+        AppenderHealth current = health.get();
+        if (current == AppenderHealth.DEGRADED && System.nanoTime() - openUntilNanos >= 0) {
+            return AppenderHealth.RECOVERING;
+        }
+        return current;
+    }
+
+    public long getDroppedCount(LogLevel level) {
+        return dropped.get(level.ordinal());
+    }
+
+    public long getDroppedCount() {
+        long total = 0;
+        for (LogLevel level : LEVELS) {
+            total += dropped.get(level.ordinal());
+        }
+        return total;
+    }
+
+    /**
+     * Part of {@link #getDroppedCount()} that was dropped because the circuit was open.
+     */
+    public long getDroppedWhileOpenCount() {
+        return droppedWhileOpen.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public LogAppender getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return delegate.getFormatter();
+    }
+
+    @Override
+    public void setFormater(LogFormatter formater) {
+        delegate.setFormater(formater);
+    }
+
+    public static class Builder {
+        private final LogAppender delegate;
+        private int capacity = DEFAULT_CAPACITY;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        private long slowAppendMillis = DEFAULT_SLOW_APPEND_MILLIS;
+        private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private long openMillis = DEFAULT_OPEN_MILLIS;
+        private long reportIntervalMillis = DEFAULT_REPORT_INTERVAL_MILLIS;
+
+        private Builder(LogAppender delegate) {
+            this.delegate = delegate;
+        }
+
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Defaults to DROP_NEWEST so a full queue never slows the caller down. With SYNCHRONOUS
+         * the caller writes the queued events and its own while the worker waits.
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public Builder slowAppendMillis(long slowAppendMillis) {
+            this.slowAppendMillis = slowAppendMillis;
+            return this;
+        }
+
+        public Builder failureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        public Builder openMillis(long openMillis) {
+            this.openMillis = openMillis;
+            return this;
+        }
+
+        public Builder reportIntervalMillis(long reportIntervalMillis) {
+            this.reportIntervalMillis = reportIntervalMillis;
+            return this;
+        }
+
+        public AsyncAppender build() {
+            return new AsyncAppender(this);
+        }
+    }
+}
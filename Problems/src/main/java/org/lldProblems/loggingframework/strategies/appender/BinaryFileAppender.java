@@ -0,0 +1,219 @@
+package org.lldProblems.loggingframework.strategies.appender;
+
+import org.lldProblems.loggingframework.binary.BinaryLogEncoder;
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.FlushPolicy;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Appends events to a file in the compact binary layout of {@link BinaryLogEncoder} instead of
+ * text, which skips message rendering on the consumer thread and writes a fraction of the
+ * bytes. Like {@link FileAppender} it buffers records and by default writes them once per
+ * batch and right after ERROR/FATAL; interval flushing is not supported. Read the file back with
+ * {@code BinaryLogDecoder}. Reopening an existing file starts a new segment in it.
+ * <p>
+ * The record layout is fixed, so there is no formatter: {@link #getFormatter()} returns null
+ * and {@link #setFormater} is ignored.
+ */
+public class BinaryFileAppender implements LogAppender {
+
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private final String filePath;
+    private final ByteBuffer buffer;
+    private final BinaryLogEncoder encoder;
+    private final Set<FlushPolicy> flushPolicies;
+    private final boolean forceOnFlush;
+    private FileChannel channel;
+
+    public BinaryFileAppender(String filePath) {
+        this(builder(filePath));
+    }
+
+    private BinaryFileAppender(Builder builder) {
+        this.filePath = builder.filePath;
+        this.buffer = ByteBuffer.allocateDirect(builder.bufferSize);
+        this.encoder = new BinaryLogEncoder(builder.maxDictionarySize);
+        this.flushPolicies = builder.flushPolicies;
+        this.forceOnFlush = builder.forceOnFlush;
+        try {
+            this.channel = FileChannel.open(Path.of(filePath),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Failed to open binary log file, exception: " + e.getMessage());
+        }
+    }
+
+    public static Builder builder(String filePath) {
+        return new Builder(filePath);
+    }
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            encode(logMessage);
+            if (flushPolicies.contains(FlushPolicy.ERROR) && logMessage.getLoglevel().isGreaterOrEqual(LogLevel.ERROR)) {
+                flushBuffer();
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write binary logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private void encode(LogMessage logMessage) throws IOException {
+        try {
+            encoder.encode(logMessage, buffer);
+            return;
+        } catch (BufferOverflowException e) {
+            // The encoder has rolled the record back.
+        }
+
+        writeBuffer();
+        try {
+            encoder.encode(logMessage, buffer);
+        } catch (BufferOverflowException e) {
+            // Record larger than the whole buffer: encode it into one that fits and write it on its own.
+            ByteBuffer large = ByteBuffer.allocate(buffer.capacity() * 2);
+            while (true) {
+                try {
+                    encoder.encode(logMessage, large);
+                    break;
+                } catch (BufferOverflowException tooSmall) {
+                    large = ByteBuffer.allocate(large.capacity() * 2);
+                }
+            }
+            large.flip();
+            writeFully(large);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (channel == null || !flushPolicies.contains(FlushPolicy.END_OF_BATCH)) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } catch (IOException e) {
+            System.out.println("Failed to write binary logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        writeBuffer();
+        if (forceOnFlush) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * On failure the rest of the buffer is dropped; see {@link #writeFully}.
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Records that did not reach the file may have defined dictionary entries, so a failed
+     * write starts a new segment and the records after it stay readable.
+     */
+    private void writeFully(ByteBuffer source) throws IOException {
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            encoder.reset();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flushBuffer();
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close binary logs file, exception: " + e.getMessage());
+        } finally {
+            channel = null;
+        }
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return null;
+    }
+
+    /**
+     * Ignored: the record layout is fixed.
+     */
+    @Override
+    public void setFormater(LogFormatter formater) {
+    }
+
+    public static class Builder {
+        private final String filePath;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private int maxDictionarySize = BinaryLogEncoder.DEFAULT_MAX_DICTIONARY_SIZE;
+        private Set<FlushPolicy> flushPolicies = EnumSet.of(FlushPolicy.END_OF_BATCH, FlushPolicy.ERROR);
+        private boolean forceOnFlush;
+
+        private Builder(String filePath) {
+            this.filePath = filePath;
+        }
+
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Distinct logger names, thread names, templates and MDC keys kept per file; later
+         * ones are written out in full every time.
+         */
+        public Builder maxDictionarySize(int maxDictionarySize) {
+            this.maxDictionarySize = maxDictionarySize;
+            return this;
+        }
+
+        public Builder flushPolicies(FlushPolicy first, FlushPolicy... rest) {
+            this.flushPolicies = EnumSet.of(first, rest);
+            return this;
+        }
+
+        public Builder forceOnFlush(boolean forceOnFlush) {
+            this.forceOnFlush = forceOnFlush;
+            return this;
+        }
+
+        public BinaryFileAppender build() {
+            return new BinaryFileAppender(this);
+        }
+    }
+}
@@ -4,15 +4,50 @@ import org.lldProblems.loggingframework.enitties.LogMessage;
 import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
 import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 public class ConsoleAppender implements LogAppender{
 
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
     private LogFormatter formatter;
     public ConsoleAppender(){
         this.formatter = new SimpleTextFormatter();
     }
     @Override
-    public void append(LogMessage logMessage) {
-        System.out.println(formatter.format(logMessage));
+    public synchronized void append(LogMessage logMessage) {
+        buffer.clear();
+        try {
+            formatter.format(logMessage, buffer);
+            System.out.write(buffer.array(), 0, buffer.position());
+        } catch (BufferOverflowException e) {
+            byte[] record = formatter.format(logMessage).getBytes(StandardCharsets.UTF_8);
+            System.out.write(record, 0, record.length);
+        }
+    }
+
+    @Override
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    @Override
+    public synchronized void appendEncoded(LogMessage logMessage, ByteBuffer record) {
+        if (record.hasArray()) {
+            System.out.write(record.array(), record.arrayOffset() + record.position(), record.remaining());
+        } else {
+            byte[] bytes = new byte[record.remaining()];
+            record.duplicate().get(bytes);
+            System.out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
     }
 
     @Override
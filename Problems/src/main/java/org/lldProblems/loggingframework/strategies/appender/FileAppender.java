@@ -1,43 +1,249 @@
 package org.lldProblems.loggingframework.strategies.appender;
 
 import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.FlushPolicy;
+import org.lldProblems.loggingframework.enums.LogLevel;
 import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
 import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Appends records to a file through a {@link FileChannel}. Records are formatted straight
+ * into a direct buffer and written in one {@code write} call per flush, which by default
+ * happens once per async batch and immediately after ERROR/FATAL records. With
+ * {@code forceOnFlush} every flush also calls {@link FileChannel#force(boolean)}, so one
+ * fsync covers the whole batch (group commit). With {@code timeIndex} a sparse
+ * {@link TimeIndexWriter} sidecar is kept up to date at flush time. With
+ * {@link FlushPolicy#INTERVAL} a timer thread also writes the buffer out once the interval
+ * has passed, so the last records don't wait in the buffer for more traffic.
+ */
 public class FileAppender implements LogAppender{
 
-    private FileWriter writer;
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    private static final long DEFAULT_INDEX_INTERVAL_BYTES = 1024 * 1024;
+    private static final long DEFAULT_INDEX_INTERVAL_MILLIS = 1000;
+
+    private final String filePath;
+    private final ByteBuffer buffer;
+    private final Set<FlushPolicy> flushPolicies;
+    private final long flushIntervalMillis;
+    private final boolean forceOnFlush;
+    private FileChannel channel;
     private LogFormatter formatter;
+    private long lastFlushMillis = System.currentTimeMillis();
+    private TimeIndexWriter timeIndex;
+    private long fileOffset;
+    private ScheduledExecutorService flusher;
 
     public FileAppender(String filePath){
-        this.formatter = new SimpleTextFormatter();
+        this(builder(filePath));
+    }
+
+    private FileAppender(Builder builder){
+        this.filePath = builder.filePath;
+        this.formatter = builder.formatter;
+        this.buffer = ByteBuffer.allocateDirect(builder.bufferSize);
+        this.flushPolicies = builder.flushPolicies;
+        this.flushIntervalMillis = builder.flushIntervalMillis;
+        this.forceOnFlush = builder.forceOnFlush;
         try {
-            this.writer = new FileWriter(filePath,true);
-        }catch (Exception e){
+            this.channel = FileChannel.open(Path.of(filePath),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.fileOffset = channel.size();
+        }catch (IOException e){
             System.out.println("Failed to create writer for file logs, exception: " + e.getMessage());
         }
+        if (channel != null && builder.timeIndex) {
+            try {
+                this.timeIndex = new TimeIndexWriter(filePath, fileOffset,
+                        builder.indexIntervalBytes, builder.indexIntervalMillis * 1000);
+            } catch (IOException e) {
+                System.out.println("Failed to open time index for file logs, exception: " + e.getMessage());
+            }
+        }
+        if (channel != null && flushPolicies.contains(FlushPolicy.INTERVAL)) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "FileAppender-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushIfDue, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
     }
+
+    public static Builder builder(String filePath){
+        return new Builder(filePath);
+    }
+
     @Override
-    public void append(LogMessage logMessage) {
+    public synchronized void append(LogMessage logMessage) {
+        if (channel == null) {
+            return;
+        }
         try {
-            writer.write(formatter.format(logMessage) + "\n");
+            encode(logMessage);
+            recordWritten(logMessage);
         }catch (IOException e){
             System.out.println("Failed to write logs to file, exception: " + e.getMessage());
         }
     }
 
     @Override
-    public void close() {
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    @Override
+    public synchronized void appendEncoded(LogMessage logMessage, ByteBuffer record) {
+        if (channel == null) {
+            return;
+        }
         try {
-            writer.close();
+            if (record.remaining() > buffer.remaining()) {
+                writeBuffer();
+            }
+            if (record.remaining() > buffer.remaining()) {
+                writeFully(record);
+            } else {
+                buffer.put(record);
+            }
+            recordWritten(logMessage);
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private void recordWritten(LogMessage logMessage) throws IOException {
+        if (timeIndex != null) {
+            timeIndex.record(logMessage.getTimestampMicros());
+        }
+        if (flushPolicies.contains(FlushPolicy.ERROR) && logMessage.getLoglevel().isGreaterOrEqual(LogLevel.ERROR)) {
+            flushBuffer();
+        } else if (isFlushIntervalDue()) {
+            flushBuffer();
+        }
+    }
+
+    private void encode(LogMessage logMessage) throws IOException {
+        int start = buffer.position();
+        try {
+            formatter.format(logMessage, buffer);
+            return;
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+        }
+
+        writeBuffer();
+        try {
+            formatter.format(logMessage, buffer);
+        } catch (BufferOverflowException e) {
+            // Record larger than the whole buffer: write it on its own.
+            buffer.clear();
+            writeFully(ByteBuffer.wrap(formatter.format(logMessage).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (flushPolicies.contains(FlushPolicy.END_OF_BATCH) || isFlushIntervalDue()) {
+                flushBuffer();
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private synchronized void flushIfDue() {
+        if (channel == null || buffer.position() == 0) {
+            return;
+        }
+        try {
+            if (isFlushIntervalDue()) {
+                flushBuffer();
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private boolean isFlushIntervalDue() {
+        return flushPolicies.contains(FlushPolicy.INTERVAL)
+                && System.currentTimeMillis() - lastFlushMillis >= flushIntervalMillis;
+    }
+
+    private void flushBuffer() throws IOException {
+        writeBuffer();
+        if (forceOnFlush) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * On failure the bytes that were not written stay at the front of the buffer and go out
+     * with the next write, behind the part that did reach the file.
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.compact();
+        }
+        lastFlushMillis = System.currentTimeMillis();
+        if (timeIndex != null) {
+            // Only called between records, so the bucket boundary is a record boundary.
+            timeIndex.flushed(fileOffset);
+        }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            fileOffset += channel.write(source);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        try {
+            flushBuffer();
+            if (timeIndex != null) {
+                timeIndex.close(fileOffset);
+            }
+            channel.close();
         }catch (IOException e){
             System.out.println("Failed to close logs file, exception: "+ e.getMessage());
+        } finally {
+            channel = null;
         }
     }
 
+    public String getFilePath() {
+        return filePath;
+    }
+
     @Override
     public LogFormatter getFormatter() {
         return formatter;
@@ -47,4 +253,67 @@ public class FileAppender implements LogAppender{
     public void setFormater(LogFormatter formater) {
         this.formatter=formater;
     }
+
+    public static class Builder {
+        private final String filePath;
+        private LogFormatter formatter = new SimpleTextFormatter();
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private Set<FlushPolicy> flushPolicies = EnumSet.of(FlushPolicy.END_OF_BATCH, FlushPolicy.ERROR);
+        private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+        private boolean forceOnFlush;
+        private boolean timeIndex;
+        private long indexIntervalBytes = DEFAULT_INDEX_INTERVAL_BYTES;
+        private long indexIntervalMillis = DEFAULT_INDEX_INTERVAL_MILLIS;
+
+        private Builder(String filePath) {
+            this.filePath = filePath;
+        }
+
+        public Builder formatter(LogFormatter formatter) {
+            this.formatter = formatter;
+            return this;
+        }
+
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        public Builder flushPolicies(FlushPolicy first, FlushPolicy... rest) {
+            this.flushPolicies = EnumSet.of(first, rest);
+            return this;
+        }
+
+        public Builder flushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+            return this;
+        }
+
+        /**
+         * fsync after every flush, so data survives a machine crash, not only a process crash.
+         */
+        public Builder forceOnFlush(boolean forceOnFlush) {
+            this.forceOnFlush = forceOnFlush;
+            return this;
+        }
+
+        /**
+         * Keep a {@code <file>.idx} time index, with an entry per megabyte or per second of
+         * events by default, for {@code TimeIndexedReader}.
+         */
+        public Builder timeIndex(boolean timeIndex) {
+            this.timeIndex = timeIndex;
+            return this;
+        }
+
+        public Builder timeIndexInterval(long intervalBytes, long intervalMillis) {
+            this.indexIntervalBytes = intervalBytes;
+            this.indexIntervalMillis = intervalMillis;
+            return this;
+        }
+
+        public FileAppender build() {
+            return new FileAppender(this);
+        }
+    }
 }
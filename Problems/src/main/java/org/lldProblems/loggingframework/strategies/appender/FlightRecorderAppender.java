@@ -0,0 +1,166 @@
+package org.lldProblems.loggingframework.strategies.appender;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the last {@code capacity} events in memory and writes them to a target appender when
+ * an event at or above the trigger level arrives, or when {@link #dump()} is called.
+ * <p>
+ * Attach it to a logger to record enabled events, and register it with
+ * {@code LogManager.addCaptureSink} to also record events below the loggers' level, such as
+ * DEBUG in production, without formatting or writing them.
+ * <p>
+ * The buffer is one preallocated ring shared by all threads. A writer claims a sequence and
+ * takes its slot with a CAS on the slot's stamp; if another writer still holds the slot the
+ * event is skipped rather than waited for. {@link #dump()} reads slots optimistically and
+ * discards any slot that changed while it was copied. Arguments are kept by reference, so a
+ * dump renders them as they are at dump time.
+ */
+public class FlightRecorderAppender implements LogAppender {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final LogAppender target;
+    private final LogLevel triggerLevel;
+    private final int capacity;
+    private final int mask;
+    private final LogMessage[] events;
+    private final AtomicLongArray stamps;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private long dumpedUpTo;
+
+    public FlightRecorderAppender(LogAppender target) {
+        this(target, DEFAULT_CAPACITY, LogLevel.ERROR);
+    }
+
+    public FlightRecorderAppender(LogAppender target, int capacity) {
+        this(target, capacity, LogLevel.ERROR);
+    }
+
+    public FlightRecorderAppender(LogAppender target, int capacity, LogLevel triggerLevel) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2, got " + capacity);
+        }
+        this.target = target;
+        this.triggerLevel = triggerLevel;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.events = new LogMessage[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            events[i] = new LogMessage();
+        }
+        this.stamps = new AtomicLongArray(this.capacity);
+    }
+
+    @Override
+    public void append(LogMessage logMessage) {
+        record(logMessage);
+        if (logMessage.getLoglevel().isGreaterOrEqual(triggerLevel)) {
+            dump();
+        }
+    }
+
+    private void record(LogMessage logMessage) {
+        long sequence = next.getAndIncrement();
+        int index = (int) sequence & mask;
+        long stamp = stamps.get(index);
+        // Odd: another writer is copying into the slot. Newer stamp: this writer was lapped.
+        if ((stamp & 1) != 0 || stamp >= stampOf(sequence) || !stamps.compareAndSet(index, stamp, stamp | 1)) {
+            skipped.incrementAndGet();
+            return;
+        }
+        events[index].copyFrom(logMessage);
+        stamps.set(index, stampOf(sequence));
+    }
+
+    private static long stampOf(long sequence) {
+        return (sequence + 1) << 1;
+    }
+
+    /**
+     * Writes every event recorded since the previous dump to the target, oldest first, and
+     * returns how many were written.
+     */
+    public synchronized int dump() {
+        long end = next.get();
+        long start = Math.max(dumpedUpTo, end - capacity);
+        List<LogMessage> snapshot = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            LogMessage copy = readSlot(sequence);
+            if (copy != null) {
+                snapshot.add(copy);
+            }
+        }
+        dumpedUpTo = end;
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+
+        // Enabled events are recorded on the consumer thread, captured ones on the logging thread.
+        snapshot.sort(Comparator.comparingLong(LogMessage::getTimestampMicros));
+        target.append(new LogMessage(LogLevel.WARN, FlightRecorderAppender.class.getSimpleName(),
+                "Dumping " + snapshot.size() + " recorded events"));
+        for (LogMessage event : snapshot) {
+            target.append(event);
+        }
+        target.flush();
+        return snapshot.size();
+    }
+
+    private LogMessage readSlot(long sequence) {
+        int index = (int) sequence & mask;
+        long stamp = stamps.get(index);
+        if (stamp != stampOf(sequence)) {
+            return null;
+        }
+        LogMessage copy = new LogMessage();
+        try {
+            copy.copyFrom(events[index]);
+        } catch (RuntimeException torn) {
+            // A writer reused the slot mid-copy; the stamp check below drops it.
+            return null;
+        }
+        VarHandle.acquireFence();
+        return stamps.get(index) == stamp ? copy : null;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getRecordedCount() {
+        return next.get();
+    }
+
+    /**
+     * Events not recorded because their slot was busy when they arrived.
+     */
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    @Override
+    public void close() {
+        target.close();
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return target.getFormatter();
+    }
+
+    @Override
+    public void setFormater(LogFormatter formater) {
+        target.setFormater(formater);
+    }
+}
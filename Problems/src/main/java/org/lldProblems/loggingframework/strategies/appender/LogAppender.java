@@ -3,11 +3,38 @@ package org.lldProblems.loggingframework.strategies.appender;
 import org.lldProblems.loggingframework.enitties.LogMessage;
 import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
 
+import java.nio.ByteBuffer;
+
 public interface LogAppender {
 
     void append(LogMessage logMessage);
 
     void close();
+
+    /**
+     * Called by the async consumer once at the end of every drained batch this appender
+     * took part in. Buffering appenders write out here instead of once per event.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Whether {@link #appendEncoded} writes the bytes it is given. Processors that format on
+     * other threads only pre-format records for appenders that say so.
+     */
+    default boolean acceptsEncoded() {
+        return false;
+    }
+
+    /**
+     * Writes a record that {@link #getFormatter()} has already turned into UTF-8 bytes on
+     * another thread; {@code record} holds it between position and limit and is only valid
+     * during the call.
+     */
+    default void appendEncoded(LogMessage logMessage, ByteBuffer record) {
+        append(logMessage);
+    }
+
     LogFormatter getFormatter();
     void setFormater(LogFormatter formater);
 }
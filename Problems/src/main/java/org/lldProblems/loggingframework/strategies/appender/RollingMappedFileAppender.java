@@ -0,0 +1,478 @@
+package org.lldProblems.loggingframework.strategies.appender;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.RolloverInterval;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes records into {@link MappedByteBuffer} segments of a fixed size, so appending is a
+ * memory copy with no syscall per record. When a segment is full the next region of the file
+ * is mapped.
+ * <p>
+ * The active file is rolled when it reaches {@code maxFileSize} or when the
+ * {@link RolloverInterval} window ends. Rolling trims the unused mapped tail, renames the file
+ * according to {@code fileNamePattern} ({@code {date}} and {@code {index}} tokens) and maps a
+ * fresh segment. Rolled file indexes are counted in memory after one directory listing at
+ * start-up, and compression and retention cleanup of rolled files run on a background thread,
+ * so the caller only ever waits for one segment map.
+ * <p>
+ * Segments are unmapped as soon as they are replaced, so the file can be truncated and
+ * renamed safely. If a roll or reopen fails, records are dropped and the appender tries again
+ * after {@value #RETRY_MILLIS} ms.
+ */
+public class RollingMappedFileAppender implements LogAppender {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final long DEFAULT_MAX_FILE_SIZE = 256L * 1024 * 1024;
+    private static final int DEFAULT_MAX_ROLLED_FILES = 7;
+    private static final String DATE_TOKEN = "{date}";
+    private static final String INDEX_TOKEN = "{index}";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final long RETRY_MILLIS = 1000;
+    private static final int TAIL_SCAN_CHUNK = 64 * 1024;
+    private static final MethodHandle UNMAP = unmapHandle();
+
+    private final Path activeFile;
+    private final String fileNamePattern;
+    private final int segmentSize;
+    private final long maxFileSize;
+    private final RolloverInterval rolloverInterval;
+    private final int maxRolledFiles;
+    private final boolean compress;
+    private final ZoneId zone;
+    private final DateTimeFormatter dateFormatter;
+    private final Pattern rolledFileName;
+    private final ExecutorService housekeeper;
+    private LogFormatter formatter;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long windowStartMillis;
+    private long nextRolloverMillis;
+    private long retryAtMillis;
+    private final Map<String, Long> lastIndexByDate = new HashMap<>();
+
+    private RollingMappedFileAppender(Builder builder) {
+        this.activeFile = Path.of(builder.filePath).toAbsolutePath();
+        this.fileNamePattern = builder.fileNamePattern != null
+                ? builder.fileNamePattern
+                : activeFile.getFileName() + "." + DATE_TOKEN + "." + INDEX_TOKEN;
+        this.segmentSize = builder.segmentSize;
+        this.maxFileSize = builder.maxFileSize;
+        this.rolloverInterval = builder.rolloverInterval;
+        this.maxRolledFiles = builder.maxRolledFiles;
+        this.compress = builder.compress;
+        this.zone = builder.zone;
+        this.formatter = builder.formatter;
+        this.dateFormatter = DateTimeFormatter.ofPattern(rolloverInterval.getDatePattern());
+        this.rolledFileName = Pattern.compile(Pattern.quote(fileNamePattern)
+                .replace(DATE_TOKEN, "\\E(?<date>.+?)\\Q")
+                .replace(INDEX_TOKEN, "\\E(?<index>\\d+)\\Q")
+                + "(?:" + Pattern.quote(GZIP_SUFFIX) + ")?");
+        this.housekeeper = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LogFileHousekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (RolledFile rolled : listRolledFiles()) {
+                lastIndexByDate.merge(rolled.date(), rolled.index(), Math::max);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to list rolled log files, exception: " + e.getMessage());
+        }
+        long now = System.currentTimeMillis();
+        try {
+            open(now);
+        } catch (IOException e) {
+            System.out.println("Failed to open mapped log file, exception: " + e.getMessage());
+            retryAtMillis = now + RETRY_MILLIS;
+        }
+    }
+
+    public static Builder builder(String filePath) {
+        return new Builder(filePath);
+    }
+
+    private void open(long nowMillis) throws IOException {
+        Path parent = activeFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel opened = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long existingBytes = endOfLastRecord(opened);
+            opened.truncate(existingBytes);
+            // A file left over from an earlier run belongs to the window it was last written in.
+            windowStartMillis = existingBytes > 0 ? Files.getLastModifiedTime(activeFile).toMillis() : nowMillis;
+            nextRolloverMillis = nextWindowStart(windowStartMillis);
+            channel = opened;
+            mapSegment(existingBytes, segmentSize);
+        } catch (IOException | RuntimeException e) {
+            channel = null;
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A process that died while writing leaves the mapped tail filled with zeros, and possibly
+     * half a record before it. Both are cut off, so new records follow the last complete line.
+     */
+    private static long endOfLastRecord(FileChannel file) throws IOException {
+        long size = file.size();
+        ByteBuffer chunk = ByteBuffer.allocate(TAIL_SCAN_CHUNK);
+        long end = size;
+        while (end > 0) {
+            long start = Math.max(0, end - TAIL_SCAN_CHUNK);
+            chunk.clear().limit((int) (end - start));
+            while (chunk.hasRemaining()) {
+                if (file.read(chunk, start + chunk.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = chunk.position() - 1; i >= 0; i--) {
+                if (chunk.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private void mapSegment(long start, int size) throws IOException {
+        unmapSegment();
+        segmentStart = start;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+    }
+
+    private void unmapSegment() {
+        MappedByteBuffer mapped = segment;
+        segment = null;
+        if (mapped != null && UNMAP != null) {
+            try {
+                UNMAP.invokeExact((ByteBuffer) mapped);
+            } catch (Throwable e) {
+                System.out.println("Failed to unmap log file segment, exception: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@code Unsafe.invokeCleaner}, the only way to release a mapping before the buffer is
+     * garbage collected; without it the file can't be renamed on Windows. Null if unavailable,
+     * in which case mappings are released by the garbage collector.
+     */
+    private static MethodHandle unmapHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private long writtenBytes() {
+        return segmentStart + segment.position();
+    }
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        long timestamp = logMessage.getTimestampMillis();
+        try {
+            if (channel == null) {
+                if (timestamp < retryAtMillis) {
+                    return;
+                }
+                retryAtMillis = timestamp + RETRY_MILLIS;
+                open(timestamp);
+            }
+            if ((timestamp >= nextRolloverMillis || (maxFileSize > 0 && writtenBytes() >= maxFileSize))
+                    && timestamp >= retryAtMillis) {
+                roll(timestamp);
+            }
+            encode(logMessage);
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to mapped file, exception: " + e.getMessage());
+        }
+    }
+
+    private void encode(LogMessage logMessage) throws IOException {
+        int start = segment.position();
+        try {
+            formatter.format(logMessage, segment);
+            return;
+        } catch (BufferOverflowException e) {
+            segment.position(start);
+        }
+
+        mapSegment(writtenBytes(), segmentSize);
+        try {
+            formatter.format(logMessage, segment);
+        } catch (BufferOverflowException e) {
+            // Record larger than a segment: map a region that fits it exactly.
+            byte[] record = formatter.format(logMessage).getBytes(StandardCharsets.UTF_8);
+            mapSegment(segmentStart, record.length);
+            segment.put(record);
+            mapSegment(writtenBytes(), segmentSize);
+        }
+    }
+
+    /**
+     * If the rename fails the active file is reopened and written to as before, and the roll is
+     * tried again after {@value #RETRY_MILLIS} ms rather than on every record.
+     */
+    private void roll(long nowMillis) throws IOException {
+        Path rolled = rolledFileName();
+        closeActive();
+        try {
+            Files.move(activeFile, rolled);
+        } catch (IOException e) {
+            retryAtMillis = nowMillis + RETRY_MILLIS;
+            System.out.println("Failed to roll mapped log file, exception: " + e.getMessage());
+            open(nowMillis);
+            return;
+        }
+        open(nowMillis);
+        housekeeper.submit(() -> compressAndPrune(rolled));
+    }
+
+    /**
+     * Trims the mapped but unused tail and closes the channel. Dirty mapped pages are left
+     * to the OS to write back, so this never waits for the disk.
+     */
+    private void closeActive() throws IOException {
+        long written = writtenBytes();
+        unmapSegment();
+        FileChannel closing = channel;
+        channel = null;
+        try {
+            closing.truncate(written);
+        } finally {
+            closing.close();
+        }
+    }
+
+    /**
+     * Next index for the window being rolled. Indexes only grow, so pruned files never get
+     * their names reused; the counters start from the files found at start-up.
+     */
+    private Path rolledFileName() {
+        String date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(windowStartMillis), zone).format(dateFormatter);
+        long index = lastIndexByDate.merge(date, 1L, Long::sum);
+        // Only the current window's counter is needed once it has been used.
+        lastIndexByDate.keySet().removeIf(other -> !other.equals(date));
+        String name = fileNamePattern.replace(DATE_TOKEN, date).replace(INDEX_TOKEN, String.valueOf(index));
+        return activeFile.resolveSibling(name);
+    }
+
+    private List<RolledFile> listRolledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(activeFile.getParent())) {
+            return files.map(this::parseRolledFile)
+                    .filter(rolled -> rolled != null)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private RolledFile parseRolledFile(Path path) {
+        Matcher matcher = rolledFileName.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String date = fileNamePattern.contains(DATE_TOKEN) ? matcher.group("date") : "";
+        long index = fileNamePattern.contains(INDEX_TOKEN) ? Long.parseLong(matcher.group("index")) : 0;
+        return new RolledFile(path, date, index);
+    }
+
+    private long nextWindowStart(long nowMillis) {
+        if (rolloverInterval.getUnit() == null) {
+            return Long.MAX_VALUE;
+        }
+        ZonedDateTime windowStart = ZonedDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone)
+                .truncatedTo(rolloverInterval.getUnit());
+        return windowStart.plus(1, rolloverInterval.getUnit()).toInstant().toEpochMilli();
+    }
+
+    private void compressAndPrune(Path rolled) {
+        try {
+            if (compress) {
+                Path compressed = rolled.resolveSibling(rolled.getFileName() + GZIP_SUFFIX);
+                try (InputStream in = Files.newInputStream(rolled);
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                    in.transferTo(out);
+                }
+                Files.delete(rolled);
+            }
+            prune();
+        } catch (IOException e) {
+            System.out.println("Failed to compress or prune rolled log file, exception: " + e.getMessage());
+        }
+    }
+
+    private void prune() throws IOException {
+        if (maxRolledFiles <= 0) {
+            return;
+        }
+        List<RolledFile> newestFirst = listRolledFiles().stream()
+                .sorted(Comparator.comparing(RolledFile::date).thenComparingLong(RolledFile::index).reversed())
+                .collect(Collectors.toList());
+        for (RolledFile expired : newestFirst.subList(Math.min(maxRolledFiles, newestFirst.size()), newestFirst.size())) {
+            Files.deleteIfExists(expired.path());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (channel != null) {
+                closeActive();
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to close mapped log file, exception: " + e.getMessage());
+        }
+        housekeeper.shutdown();
+        try {
+            housekeeper.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Path getActiveFile() {
+        return activeFile;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+
+    @Override
+    public void setFormater(LogFormatter formater) {
+        this.formatter = formater;
+    }
+
+    public static class Builder {
+        private final String filePath;
+        private String fileNamePattern;
+        private LogFormatter formatter = new SimpleTextFormatter();
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        private RolloverInterval rolloverInterval = RolloverInterval.DAILY;
+        private int maxRolledFiles = DEFAULT_MAX_ROLLED_FILES;
+        private boolean compress;
+        private ZoneId zone = ZoneId.systemDefault();
+
+        private Builder(String filePath) {
+            this.filePath = filePath;
+        }
+
+        /**
+         * Name of rolled files, in the active file's directory. {@code {date}} is the start of the
+         * rolled window, {@code {index}} counts files rolled within the same window. Defaults to
+         * {@code <active file name>.{date}.{index}}.
+         */
+        public Builder fileNamePattern(String fileNamePattern) {
+            this.fileNamePattern = fileNamePattern;
+            return this;
+        }
+
+        public Builder formatter(LogFormatter formatter) {
+            this.formatter = formatter;
+            return this;
+        }
+
+        public Builder segmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Roll once the active file reaches this many bytes, 0 to roll by time only.
+         */
+        public Builder maxFileSize(long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        public Builder rolloverInterval(RolloverInterval rolloverInterval) {
+            this.rolloverInterval = rolloverInterval;
+            return this;
+        }
+
+        /**
+         * How many rolled files to keep, oldest are deleted first. 0 keeps all of them.
+         */
+        public Builder maxRolledFiles(int maxRolledFiles) {
+            this.maxRolledFiles = maxRolledFiles;
+            return this;
+        }
+
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        public Builder zone(ZoneId zone) {
+            this.zone = zone;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the pattern can give two rolled files the same
+         *                                  name: it needs {@code {index}}, unless it has
+         *                                  {@code {date}} and files only roll by time
+         */
+        public RollingMappedFileAppender build() {
+            String pattern = fileNamePattern != null ? fileNamePattern : INDEX_TOKEN;
+            boolean timeOnly = maxFileSize <= 0 && rolloverInterval.getUnit() != null;
+            if (!pattern.contains(INDEX_TOKEN) && !(pattern.contains(DATE_TOKEN) && timeOnly)) {
+                throw new IllegalArgumentException("fileNamePattern needs " + INDEX_TOKEN
+                        + " unless it has " + DATE_TOKEN + " and files only roll by time, got " + fileNamePattern);
+            }
+            return new RollingMappedFileAppender(this);
+        }
+    }
+
+    private record RolledFile(Path path, String date, long index) {
+    }
+}
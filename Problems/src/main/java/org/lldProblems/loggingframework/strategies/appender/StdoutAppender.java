@@ -0,0 +1,358 @@
+package org.lldProblems.loggingframework.strategies.appender;
+
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.strategies.formatter.LogFormatter;
+import org.lldProblems.loggingframework.strategies.formatter.SimpleTextFormatter;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes records to the process's standard output through a {@link FileChannel} on
+ * {@link FileDescriptor#out}, bypassing {@code System.out}: records are formatted straight into
+ * a direct buffer and written with one {@code write} per drained batch instead of a locked,
+ * flushed {@code println} per event. Output written through {@code System.out} at the same
+ * time may interleave with it at batch boundaries.
+ * <p>
+ * By default a full pipe (a slow log collector) blocks the consumer thread, like any other
+ * appender. In non-blocking mode a dedicated writer thread does the writes and the appender
+ * only hands it a filled buffer. While the writer is stuck, the next batch accumulates in a
+ * second buffer; once that is full, records are dropped and counted, and a notice with the
+ * count is written when the pipe drains. Records larger than the buffer are dropped too.
+ */
+public class StdoutAppender implements LogAppender {
+
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final FileChannel channel;
+    private final boolean nonBlocking;
+    private final Thread writer;
+    // The writer only takes this lock to pick up a waiting batch, and never waits for it, so
+    // a busy consumer cannot starve it the way it would on the appender's monitor.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicReference<ByteBuffer> spare = new AtomicReference<>();
+    private final AtomicReference<ByteBuffer> ready = new AtomicReference<>();
+    private LogFormatter formatter;
+    private ByteBuffer filling;
+    private volatile long droppedCount;
+    private long droppedSinceNotice;
+    private volatile boolean closed;
+
+    public StdoutAppender() {
+        this(builder());
+    }
+
+    private StdoutAppender(Builder builder) {
+        this.channel = new FileOutputStream(FileDescriptor.out).getChannel();
+        this.formatter = builder.formatter;
+        this.nonBlocking = builder.nonBlocking;
+        this.filling = ByteBuffer.allocateDirect(builder.bufferSize);
+        if (nonBlocking) {
+            this.spare.set(ByteBuffer.allocateDirect(builder.bufferSize));
+            this.writer = new Thread(this::runWriter, "StdoutAppender-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void append(LogMessage logMessage) {
+        lock.lock();
+        try {
+            if (!closed) {
+                encode(logMessage);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    @Override
+    public void appendEncoded(LogMessage logMessage, ByteBuffer record) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (record.remaining() <= filling.remaining()) {
+                filling.put(record);
+            } else if (!nonBlocking) {
+                write(filling);
+                if (record.remaining() <= filling.remaining()) {
+                    filling.put(record);
+                } else {
+                    writeFully(record);
+                }
+            } else if (makeRoom() && record.remaining() <= filling.remaining()) {
+                filling.put(record);
+            } else {
+                droppedCount++;
+                droppedSinceNotice++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void encode(LogMessage logMessage) {
+        int start = filling.position();
+        try {
+            formatter.format(logMessage, filling);
+            return;
+        } catch (BufferOverflowException e) {
+            filling.position(start);
+        }
+
+        if (!nonBlocking) {
+            write(filling);
+            try {
+                formatter.format(logMessage, filling);
+            } catch (BufferOverflowException e) {
+                filling.clear();
+                writeFully(ByteBuffer.wrap(formatter.format(logMessage).getBytes(StandardCharsets.UTF_8)));
+            }
+            return;
+        }
+        if (makeRoom()) {
+            int fresh = filling.position();
+            try {
+                formatter.format(logMessage, filling);
+                return;
+            } catch (BufferOverflowException e) {
+                filling.position(fresh);
+            }
+        }
+        droppedCount++;
+        droppedSinceNotice++;
+    }
+
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (closed || filling.position() == 0) {
+                return;
+            }
+            if (nonBlocking) {
+                // If the writer is busy it picks the buffer up itself when it is done.
+                handOff();
+            } else {
+                write(filling);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the filled buffer to the writer, giving a writer that is runnable but not
+     * scheduled one chance; never waits on the pipe. Caller holds the lock.
+     */
+    private boolean makeRoom() {
+        if (handOff()) {
+            return true;
+        }
+        Thread.yield();
+        return handOff();
+    }
+
+    /**
+     * Gives the filled buffer to the writer if it is idle. Caller holds the lock.
+     */
+    private boolean handOff() {
+        ByteBuffer next = spare.getAndSet(null);
+        if (next == null) {
+            return false;
+        }
+        ready.set(filling);
+        filling = next;
+        if (droppedSinceNotice > 0) {
+            putNotice();
+        }
+        LockSupport.unpark(writer);
+        return true;
+    }
+
+    private void putNotice() {
+        String notice = "[StdoutAppender] dropped " + droppedSinceNotice + " records while stdout was blocked\n";
+        try {
+            filling.put(notice.getBytes(StandardCharsets.UTF_8));
+            droppedSinceNotice = 0;
+        } catch (BufferOverflowException e) {
+            filling.clear();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            ByteBuffer batch = ready.getAndSet(null);
+            if (batch == null) {
+                if (closed && (batch = ready.getAndSet(null)) == null) {
+                    return;
+                }
+                if (batch == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+            }
+            write(batch);
+            returnSpare(batch);
+        }
+    }
+
+    /**
+     * Makes {@code batch} the spare again, then takes whatever the consumer has buffered
+     * meanwhile unless the consumer hands it over itself first.
+     */
+    private void returnSpare(ByteBuffer batch) {
+        spare.set(batch);
+        while (spare.get() == batch) {
+            try {
+                if (lock.tryLock(1, TimeUnit.MILLISECONDS)) {
+                    try {
+                        if (spare.get() == batch && filling.position() > 0) {
+                            handOff();
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes and clears {@code batch}.
+     */
+    private void write(ByteBuffer batch) {
+        batch.flip();
+        try {
+            writeFully(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * The only place that touches the channel.
+     */
+    private void writeFully(ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            // Reporting on stdout would hit the same broken stream.
+            System.err.println("Failed to write logs to stdout, exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes what is buffered. Standard output itself stays open.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (filling.position() > 0) {
+                if (nonBlocking) {
+                    handOff();
+                } else {
+                    write(filling);
+                }
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Records dropped in non-blocking mode since the appender was created.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+
+    @Override
+    public void setFormater(LogFormatter formater) {
+        this.formatter = formater;
+    }
+
+    public static class Builder {
+        private LogFormatter formatter = new SimpleTextFormatter();
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private boolean nonBlocking;
+
+        private Builder() {
+        }
+
+        public Builder formatter(LogFormatter formatter) {
+            this.formatter = formatter;
+            return this;
+        }
+
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Hand writes to a dedicated thread and drop records rather than block the consumer
+         * when stdout is not being read fast enough.
+         */
+        public Builder nonBlocking(boolean nonBlocking) {
+            this.nonBlocking = nonBlocking;
+            return this;
+        }
+
+        public StdoutAppender build() {
+            return new StdoutAppender(this);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.lldProblems.loggingframework.strategies.appender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sparse time index kept next to a log file as {@code <file>.idx}. The log is cut into buckets
+ * at flush boundaries, which always fall between records, and each bucket gets one fixed-size
+ * entry: start offset, end offset, and the lowest and highest event timestamp in it (epoch
+ * micros), four big-endian longs. Events reach the file in queue order, not strictly in time
+ * order, so a reader uses the min/max pair rather than assuming buckets are sorted.
+ * <p>
+ * The appender reports timestamps as it encodes events and calls {@link #flushed} after each
+ * write to the log; a bucket is closed once it spans {@code intervalBytes} or
+ * {@code intervalMicros}, so the index costs one small write per bucket and nothing per event.
+ */
+public final class TimeIndexWriter {
+
+    public static final int ENTRY_SIZE = 4 * Long.BYTES;
+    public static final String SUFFIX = ".idx";
+
+    private final FileChannel channel;
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+    private final long intervalBytes;
+    private final long intervalMicros;
+    private long bucketStart;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    TimeIndexWriter(String logPath, long startOffset, long intervalBytes, long intervalMicros) throws IOException {
+        this.channel = FileChannel.open(indexPathFor(Path.of(logPath)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.bucketStart = startOffset;
+        this.intervalBytes = intervalBytes;
+        this.intervalMicros = intervalMicros;
+    }
+
+    public static Path indexPathFor(Path logFile) {
+        return logFile.resolveSibling(logFile.getFileName() + SUFFIX);
+    }
+
+    void record(long timestampMicros) {
+        if (timestampMicros < minTimestamp) {
+            minTimestamp = timestampMicros;
+        }
+        if (timestampMicros > maxTimestamp) {
+            maxTimestamp = timestampMicros;
+        }
+    }
+
+    /**
+     * Called after the log has been written up to {@code fileOffset}.
+     */
+    void flushed(long fileOffset) throws IOException {
+        if (fileOffset - bucketStart >= intervalBytes
+                || (minTimestamp != Long.MAX_VALUE && maxTimestamp - minTimestamp >= intervalMicros)) {
+            closeBucket(fileOffset);
+        }
+    }
+
+    void close(long fileOffset) throws IOException {
+        try {
+            closeBucket(fileOffset);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void closeBucket(long fileOffset) throws IOException {
+        if (fileOffset == bucketStart || minTimestamp == Long.MAX_VALUE) {
+            return;
+        }
+        entry.clear();
+        entry.putLong(bucketStart).putLong(fileOffset).putLong(minTimestamp).putLong(maxTimestamp).flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        bucketStart = fileOffset;
+        minTimestamp = Long.MAX_VALUE;
+        maxTimestamp = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,9 @@
+package org.lldProblems.loggingframework.strategies.clock;
+
+/**
+ * Source of event timestamps. Implementations used in garbage-free mode must not allocate.
+ */
+public interface LogClock {
+
+    long currentTimeMicros();
+}
@@ -0,0 +1,12 @@
+package org.lldProblems.loggingframework.strategies.clock;
+
+/**
+ * Millisecond precision from {@link System#currentTimeMillis()}. Allocation free.
+ */
+public class SystemClock implements LogClock {
+
+    @Override
+    public long currentTimeMicros() {
+        return System.currentTimeMillis() * 1000;
+    }
+}
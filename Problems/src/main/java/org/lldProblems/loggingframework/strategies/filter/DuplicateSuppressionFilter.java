@@ -0,0 +1,108 @@
+package org.lldProblems.loggingframework.strategies.filter;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lets the first {@code maxRepeats} calls with the same level and message template through in
+ * each window and drops the rest. The first call let through after a window in which calls were
+ * dropped reports how many, so the logger writes one summary record instead of the storm; if no
+ * such call comes, {@link #flushSuppressed} reports the count once the window is over.
+ * <p>
+ * State is a fixed-size open table indexed by the template's hash, one slot per template. A
+ * different template hashing to a taken slot only replaces the owner once the owner's dropped
+ * calls have been reported, and is let through unfiltered until then. Every call does a constant
+ * number of atomic operations and never loops, so counts are approximate when threads race on a
+ * window boundary. Calls without a template (suppliers) are always let through.
+ */
+public class DuplicateSuppressionFilter implements LogFilter {
+
+    private static final int DEFAULT_TABLE_SIZE = 256;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final long windowNanos;
+    private final int maxRepeats;
+    private final int mask;
+    private final AtomicReferenceArray<String> templates;
+    private final AtomicIntegerArray levels;
+    private final AtomicLongArray windowStart;
+    private final AtomicLongArray seen;
+    private final AtomicLongArray dropped;
+
+    public DuplicateSuppressionFilter(long windowMillis, int maxRepeats) {
+        this(windowMillis, maxRepeats, DEFAULT_TABLE_SIZE);
+    }
+
+    public DuplicateSuppressionFilter(long windowMillis, int maxRepeats, int tableSize) {
+        if (windowMillis <= 0 || maxRepeats < 1 || tableSize < 1) {
+            throw new IllegalArgumentException("windowMillis, maxRepeats and tableSize must be positive");
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxRepeats = maxRepeats;
+        int size = Integer.highestOneBit(Math.max(1, tableSize - 1)) << 1;
+        this.mask = size - 1;
+        this.templates = new AtomicReferenceArray<>(size);
+        this.levels = new AtomicIntegerArray(size);
+        this.windowStart = new AtomicLongArray(size);
+        this.seen = new AtomicLongArray(size);
+        this.dropped = new AtomicLongArray(size);
+    }
+
+    @Override
+    public long filter(String loggerName, LogLevel level, String template) {
+        if (template == null) {
+            return 0;
+        }
+        int slot = FilterHash.slot(template.hashCode() * 31 + level.ordinal(), mask);
+        long now = System.nanoTime();
+
+        String owner = templates.get(slot);
+        if (owner != template && !template.equals(owner) || levels.get(slot) != level.ordinal()) {
+            // New key for this slot: take it over once the owner has nothing left to report.
+            if (dropped.get(slot) != 0 || !templates.compareAndSet(slot, owner, template)) {
+                return 0;
+            }
+            levels.set(slot, level.ordinal());
+            windowStart.set(slot, now);
+            seen.set(slot, 1);
+            return 0;
+        }
+
+        long start = windowStart.get(slot);
+        if (now - start >= windowNanos && windowStart.compareAndSet(slot, start, now)) {
+            seen.set(slot, 1);
+            return dropped.get(slot) == 0 ? 0 : dropped.getAndSet(slot, 0);
+        }
+        if (seen.incrementAndGet(slot) <= maxRepeats) {
+            return 0;
+        }
+        dropped.incrementAndGet(slot);
+        return DENY;
+    }
+
+    /**
+     * Reports the keys whose window is over with calls still dropped, which also frees their
+     * slots for colliding templates.
+     */
+    @Override
+    public void flushSuppressed(SummarySink sink) {
+        long now = System.nanoTime();
+        for (int slot = 0; slot <= mask; slot++) {
+            long start = windowStart.get(slot);
+            if (dropped.get(slot) == 0 || now - start < windowNanos || !windowStart.compareAndSet(slot, start, now)) {
+                continue;
+            }
+            seen.set(slot, 0);
+            String template = templates.get(slot);
+            LogLevel level = LEVELS[levels.get(slot)];
+            long count = dropped.getAndSet(slot, 0);
+            if (count > 0) {
+                sink.suppressed(level, template, count);
+            }
+        }
+    }
+}
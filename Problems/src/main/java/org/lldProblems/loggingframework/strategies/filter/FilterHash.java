@@ -0,0 +1,14 @@
+package org.lldProblems.loggingframework.strategies.filter;
+
+final class FilterHash {
+
+    private FilterHash() {
+    }
+
+    /**
+     * Spreads the high bits down before masking, like {@code HashMap} does.
+     */
+    static int slot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
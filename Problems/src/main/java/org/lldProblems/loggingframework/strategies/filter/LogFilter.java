@@ -0,0 +1,39 @@
+package org.lldProblems.loggingframework.strategies.filter;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+/**
+ * Decides on the logging thread, before any event is built, whether an enabled call is logged.
+ * Implementations must not block and must do a bounded amount of work per call; they only see
+ * the logger name, the level and the message template (null for supplier calls), never the
+ * arguments.
+ */
+public interface LogFilter {
+
+    /**
+     * Returned by {@link #filter} to drop the call.
+     */
+    long DENY = -1;
+
+    /**
+     * Returns {@link #DENY} to drop the call. Otherwise returns how many calls with the same key
+     * this filter dropped since it last let one through; when that is above zero the logger
+     * follows the event with a summary record.
+     */
+    long filter(String loggerName, LogLevel level, String template);
+
+    /**
+     * Reports dropped counts that no later call would pick up, such as those of a key that
+     * stopped being logged. The logger the filter is attached to calls this periodically and on
+     * shutdown; the default has nothing to report.
+     */
+    default void flushSuppressed(SummarySink sink) {
+    }
+
+    /**
+     * Receives one summary per key from {@link #flushSuppressed}.
+     */
+    interface SummarySink {
+        void suppressed(LogLevel level, String key, long count);
+    }
+}
@@ -0,0 +1,71 @@
+package org.lldProblems.loggingframework.strategies.filter;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket per logger and level: {@code permitsPerSecond} on average with bursts of up to
+ * {@code burst} calls. Levels at or above {@code exemptLevel} always pass.
+ * <p>
+ * Buckets live in a fixed table indexed by a hash of logger name and level, so memory does not
+ * grow with the number of loggers; keys that collide share a bucket. Each bucket is a single
+ * theoretical-arrival-time value (GCRA) updated with a CAS. A call makes at most
+ * {@value #MAX_ATTEMPTS} attempts and is dropped if all of them lose a race, which only happens
+ * when the bucket is being drained by other threads anyway.
+ */
+public class RateLimitFilter implements LogFilter {
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final int DEFAULT_TABLE_SIZE = 1024;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LogLevel exemptLevel;
+    private final int mask;
+    private final AtomicLongArray arrival;
+    private final AtomicLongArray dropped;
+
+    public RateLimitFilter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, LogLevel.ERROR, DEFAULT_TABLE_SIZE);
+    }
+
+    public RateLimitFilter(double permitsPerSecond, int burst, LogLevel exemptLevel, int tableSize) {
+        if (permitsPerSecond <= 0 || burst < 1 || tableSize < 1) {
+            throw new IllegalArgumentException("permitsPerSecond, burst and tableSize must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.exemptLevel = exemptLevel;
+        int size = Integer.highestOneBit(Math.max(1, tableSize - 1)) << 1;
+        this.mask = size - 1;
+        this.arrival = new AtomicLongArray(size);
+        this.dropped = new AtomicLongArray(size);
+        long start = System.nanoTime() - burstNanos;
+        for (int i = 0; i < size; i++) {
+            arrival.set(i, start);
+        }
+    }
+
+    @Override
+    public long filter(String loggerName, LogLevel level, String template) {
+        if (level.isGreaterOrEqual(exemptLevel)) {
+            return 0;
+        }
+        int slot = FilterHash.slot(loggerName.hashCode() * 31 + level.ordinal(), mask);
+        long now = System.nanoTime();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long current = arrival.get(slot);
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                break;
+            }
+            if (arrival.compareAndSet(slot, current, next)) {
+                return dropped.get(slot) == 0 ? 0 : dropped.getAndSet(slot, 0);
+            }
+        }
+        dropped.incrementAndGet(slot);
+        return DENY;
+    }
+}
@@ -0,0 +1,36 @@
+package org.lldProblems.loggingframework.strategies.filter;
+
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps on average one call in {@code n} for levels below {@code exemptLevel}. Uses the
+ * thread-local random generator, so there is no shared state at all. Sampled calls are not
+ * summarised: the rate is known from the configuration.
+ */
+public class SamplingFilter implements LogFilter {
+
+    private final int n;
+    private final LogLevel exemptLevel;
+
+    public SamplingFilter(int n) {
+        this(n, LogLevel.WARN);
+    }
+
+    public SamplingFilter(int n, LogLevel exemptLevel) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive, got " + n);
+        }
+        this.n = n;
+        this.exemptLevel = exemptLevel;
+    }
+
+    @Override
+    public long filter(String loggerName, LogLevel level, String template) {
+        if (n == 1 || level.isGreaterOrEqual(exemptLevel)) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextInt(n) == 0 ? 0 : DENY;
+    }
+}
@@ -0,0 +1,222 @@
+package org.lldProblems.loggingframework.strategies.formatter;
+
+import org.lldProblems.loggingframework.enitties.ContextMap;
+import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One JSON object per line:
+ * <pre>
+ * {"timestamp":1760788800123456,"level":"INFO","logger":"com.example.Orders","thread":"main",
+ *  "scope":"checkout","message":"order 42 placed","mdc":{"requestId":"r-1"},"exception":"..."}
+ * </pre>
+ * {@code timestamp} is in microseconds since the epoch. {@code scope}, {@code mdc} and
+ * {@code exception} are only present when the event has them; the exception is the printed
+ * stack trace.
+ * <p>
+ * Strings are escaped and encoded as UTF-8 in a single pass straight into the buffer. Logger,
+ * thread and MDC key names are escaped once and cached with their quotes, and the field names
+ * are constant bytes, so the {@code ByteBuffer} path allocates only where
+ * {@link SimpleTextFormatter} does. Safe to share between threads.
+ */
+public class JsonFormatter implements LogFormatter {
+    private static final int NAME_CACHE_LIMIT = 4096;
+    private static final int SCRATCH_RETAIN_LIMIT = 16 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] LEVEL_BYTES = new byte[LogLevel.values().length][];
+    private static final byte[] TIMESTAMP = ascii("{\"timestamp\":");
+    private static final byte[] LEVEL = ascii(",\"level\":");
+    private static final byte[] LOGGER = ascii(",\"logger\":");
+    private static final byte[] THREAD = ascii(",\"thread\":");
+    private static final byte[] SCOPE = ascii(",\"scope\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] CONTEXT = ascii(",\"mdc\":{");
+    private static final byte[] EXCEPTION = ascii(",\"exception\":");
+    private static final byte[] END = ascii("}\n");
+    private static final ThreadLocal<StringBuilder> SCRATCH = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    static {
+        for (LogLevel level : LogLevel.values()) {
+            LEVEL_BYTES[level.ordinal()] = ascii('"' + level.name() + '"');
+        }
+    }
+
+    private final Map<String, byte[]> nameBytes = new ConcurrentHashMap<>();
+
+    @Override
+    public String format(LogMessage logMessage) {
+        ByteBuffer out = ByteBuffer.allocate(512);
+        while (true) {
+            try {
+                format(logMessage, out);
+                return new String(out.array(), 0, out.position(), StandardCharsets.UTF_8);
+            } catch (BufferOverflowException e) {
+                out = ByteBuffer.allocate(out.capacity() * 2);
+            }
+        }
+    }
+
+    @Override
+    public void format(LogMessage logMessage, ByteBuffer out) {
+        out.put(TIMESTAMP);
+        putLong(out, logMessage.getTimestampMicros());
+        out.put(LEVEL);
+        out.put(LEVEL_BYTES[logMessage.getLoglevel().ordinal()]);
+        out.put(LOGGER);
+        out.put(quotedBytesOf(logMessage.getLoggerName()));
+        out.put(THREAD);
+        out.put(quotedBytesOf(logMessage.getThreadName()));
+        if (logMessage.getScope() != null) {
+            // Scope names are usually per request, so they are not worth caching.
+            out.put(SCOPE);
+            putString(logMessage.getScope(), out);
+        }
+        out.put(MESSAGE);
+        if (logMessage.getMessageSupplier() == null && logMessage.getArgumentCount() > 0) {
+            StringBuilder scratch = SCRATCH.get();
+            scratch.setLength(0);
+            MessageFormatter.formatTo(scratch, logMessage.getMessagePattern(),
+                    logMessage.getArguments(), logMessage.getArgumentCount());
+            putString(scratch, out);
+            if (scratch.capacity() > SCRATCH_RETAIN_LIMIT) {
+                SCRATCH.remove();
+            }
+        } else {
+            putString(String.valueOf(logMessage.getMessage()), out);
+        }
+        putContext(logMessage.getContext(), out);
+
+        Throwable throwable = logMessage.getThrowable();
+        if (throwable != null) {
+            out.put(EXCEPTION);
+            putString(stackTraceOf(throwable), out);
+        }
+        out.put(END);
+    }
+
+    private void putContext(ContextMap context, ByteBuffer out) {
+        if (context.isEmpty()) {
+            return;
+        }
+        out.put(CONTEXT);
+        for (int i = 0, n = context.size(); i < n; i++) {
+            if (i > 0) {
+                out.put((byte) ',');
+            }
+            out.put(quotedBytesOf(context.keyAt(i)));
+            out.put((byte) ':');
+            putString(context.valueAt(i), out);
+        }
+        out.put((byte) '}');
+    }
+
+    private byte[] quotedBytesOf(String name) {
+        String key = String.valueOf(name);
+        byte[] bytes = nameBytes.get(key);
+        if (bytes == null) {
+            ByteBuffer quoted = ByteBuffer.allocate(key.length() * 6 + 2);
+            putString(key, quoted);
+            bytes = Arrays.copyOf(quoted.array(), quoted.position());
+            if (nameBytes.size() < NAME_CACHE_LIMIT) {
+                nameBytes.put(key, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes {@code text} as a quoted JSON string in UTF-8. Quotes, backslashes and control
+     * characters are escaped; unpaired surrogates become '?', as in {@link Utf8}.
+     */
+    static void putString(CharSequence text, ByteBuffer out) {
+        out.put((byte) '"');
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    out.put((byte) '\\');
+                }
+                out.put((byte) c);
+            } else if (c < 0x20) {
+                putControl(c, out);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private static void putControl(char c, ByteBuffer out) {
+        out.put((byte) '\\');
+        switch (c) {
+            case '\n' -> out.put((byte) 'n');
+            case '\r' -> out.put((byte) 'r');
+            case '\t' -> out.put((byte) 't');
+            case '\b' -> out.put((byte) 'b');
+            case '\f' -> out.put((byte) 'f');
+            default -> {
+                out.put((byte) 'u');
+                out.put((byte) '0');
+                out.put((byte) '0');
+                out.put(HEX[c >> 4]);
+                out.put(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private static void putLong(ByteBuffer out, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                out.put(ascii(Long.toString(value)));
+                return;
+            }
+            out.put((byte) '-');
+            value = -value;
+        }
+        int width = 1;
+        for (long limit = 10; width < 19 && value >= limit; limit *= 10) {
+            width++;
+        }
+        if (out.remaining() < width) {
+            throw new BufferOverflowException();
+        }
+        int start = out.position();
+        for (int i = start + width - 1; i >= start; i--) {
+            out.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        out.position(start + width);
+    }
+
+    private static String stackTraceOf(Throwable throwable) {
+        StringWriter stackTrace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(stackTrace));
+        return stackTrace.toString();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
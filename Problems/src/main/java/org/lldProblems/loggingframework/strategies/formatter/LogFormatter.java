@@ -2,6 +2,29 @@ package org.lldProblems.loggingframework.strategies.formatter;
 
 import org.lldProblems.loggingframework.enitties.LogMessage;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns an event into one record, including its trailing line terminator. Appenders
+ * write the record as is.
+ * <p>
+ * The {@code StringBuilder} and {@code ByteBuffer} variants let formatters write into
+ * caller-owned buffers; the defaults go through {@link #format(LogMessage)}, so existing
+ * formatters keep working unchanged.
+ */
 public interface LogFormatter {
     String format(LogMessage logMessage);
+
+    default void format(LogMessage logMessage, StringBuilder out) {
+        out.append(format(logMessage));
+    }
+
+    /**
+     * Writes the record as UTF-8. If it does not fit, a {@link java.nio.BufferOverflowException}
+     * is thrown and the buffer position is unspecified; callers reset it and retry with more room.
+     */
+    default void format(LogMessage logMessage, ByteBuffer out) {
+        out.put(format(logMessage).getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,68 @@
+package org.lldProblems.loggingframework.strategies.formatter;
+
+import java.util.Arrays;
+
+/**
+ * Substitutes {@code {}} placeholders in a message pattern with the event arguments,
+ * left to right. Surplus placeholders stay as they are, surplus arguments are ignored.
+ */
+public final class MessageFormatter {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private MessageFormatter() {
+    }
+
+    public static String format(String pattern, Object[] arguments) {
+        if (pattern == null || arguments == null || arguments.length == 0) {
+            return pattern;
+        }
+        StringBuilder out = new StringBuilder(pattern.length() + 16 * arguments.length);
+        formatTo(out, pattern, arguments, arguments.length);
+        return out.toString();
+    }
+
+    public static void formatTo(StringBuilder out, String pattern, Object[] arguments, int argumentCount) {
+        if (pattern == null) {
+            out.append((String) null);
+            return;
+        }
+        int from = 0;
+        for (int i = 0; i < argumentCount; i++) {
+            int placeholder = pattern.indexOf(PLACEHOLDER, from);
+            if (placeholder == -1) {
+                break;
+            }
+            out.append(pattern, from, placeholder);
+            appendArgument(out, arguments[i]);
+            from = placeholder + PLACEHOLDER.length();
+        }
+        out.append(pattern, from, pattern.length());
+    }
+
+    public static int countPlaceholders(String pattern) {
+        if (pattern == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = pattern.indexOf(PLACEHOLDER); i != -1; i = pattern.indexOf(PLACEHOLDER, i + PLACEHOLDER.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Appends one argument the way a placeholder renders it.
+     */
+    public static void appendArgument(StringBuilder out, Object argument) {
+        try {
+            if (argument instanceof Object[] array) {
+                out.append(Arrays.deepToString(array));
+            } else {
+                out.append(argument);
+            }
+        } catch (RuntimeException e) {
+            out.append("[FAILED toString(): ").append(e.getClass().getSimpleName()).append(']');
+        }
+    }
+}
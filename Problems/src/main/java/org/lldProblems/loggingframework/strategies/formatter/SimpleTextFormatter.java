@@ -1,19 +1,234 @@
 package org.lldProblems.loggingframework.strategies.formatter;
 
+import org.lldProblems.loggingframework.enitties.ContextMap;
 import org.lldProblems.loggingframework.enitties.LogMessage;
+import org.lldProblems.loggingframework.enums.LogLevel;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * {@code yyyy-MM-dd HH:mm:ss.SSS [thread] LEVEL - logger: message}, one record per line,
+ * with {@code [scope]} after the thread for events logged inside a {@code LogScope} and
+ * {@code {key=value, ...}} for the selected MDC keys the event's context has.
+ * <p>
+ * The date and time up to the second are formatted once per second and reused, the
+ * milliseconds are written as digits. Level, logger and thread names are encoded once and
+ * cached as bytes, so the {@code ByteBuffer} path only allocates for messages with
+ * arguments (into a per-thread scratch builder that is reused) and for stack traces.
+ * Safe to share between threads.
+ */
 public class SimpleTextFormatter implements LogFormatter{
-    private static final DateTimeFormatter DATE_TIME_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter SECOND_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.");
+    private static final int NAME_CACHE_LIMIT = 4096;
+    private static final int SCRATCH_RETAIN_LIMIT = 16 * 1024;
+    private static final byte[][] LEVEL_BYTES = new byte[LogLevel.values().length][];
+    private static final byte[] THREAD_OPEN = " [".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] THREAD_CLOSE = "] ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LOGGER_SEPARATOR = " - ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MESSAGE_SEPARATOR = ": ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTEXT_SEPARATOR = ", ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTEXT_CLOSE = "} ".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<StringBuilder> SCRATCH = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    static {
+        for (LogLevel level : LogLevel.values()) {
+            LEVEL_BYTES[level.ordinal()] = level.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final ZoneId zone;
+    private final String[] contextKeys;
+    private final byte[][] contextKeyBytes;
+    private final Map<String, byte[]> nameBytes = new ConcurrentHashMap<>();
+    private volatile SecondPrefix secondPrefix = new SecondPrefix(Long.MIN_VALUE, "", new byte[0]);
+
+    public SimpleTextFormatter() {
+        this(ZoneId.systemDefault());
+    }
+
+    public SimpleTextFormatter(ZoneId zone) {
+        this(zone, new String[0]);
+    }
+
+    /**
+     * Also prints the given MDC keys, in this order, when the event's context has them.
+     */
+    public SimpleTextFormatter(String... contextKeys) {
+        this(ZoneId.systemDefault(), contextKeys);
+    }
+
+    public SimpleTextFormatter(ZoneId zone, String... contextKeys) {
+        this.zone = zone;
+        this.contextKeys = contextKeys.clone();
+        this.contextKeyBytes = new byte[contextKeys.length][];
+        for (int i = 0; i < contextKeys.length; i++) {
+            contextKeyBytes[i] = (contextKeys[i] + "=").getBytes(StandardCharsets.UTF_8);
+        }
+    }
 
     public String format(LogMessage logMessage){
-        return String.format("%s [%s] %s - %s: %s\n",
-                logMessage.getTimeStamp().format(DATE_TIME_FORMATTER),
-                logMessage.getThreadName(),
-                logMessage.getLoglevel(),
-                logMessage.getLoggerName(),
-                logMessage.getMessage());
+        StringBuilder out = new StringBuilder(128);
+        format(logMessage, out);
+        return out.toString();
+    }
+
+    @Override
+    public void format(LogMessage logMessage, StringBuilder out) {
+        long millis = logMessage.getTimestampMillis();
+        int millisOfSecond = (int) Math.floorMod(millis, 1000L);
+        out.append(prefixFor(millis).text);
+        if (millisOfSecond < 100) {
+            out.append('0');
+        }
+        if (millisOfSecond < 10) {
+            out.append('0');
+        }
+        out.append(millisOfSecond)
+                .append(" [").append(logMessage.getThreadName()).append("] ");
+        if (logMessage.getScope() != null) {
+            out.append('[').append(logMessage.getScope()).append("] ");
+        }
+        appendContext(logMessage, out);
+        out.append(logMessage.getLoglevel().name())
+                .append(" - ").append(logMessage.getLoggerName()).append(": ");
+        appendMessage(logMessage, out);
+        out.append('\n');
+
+        Throwable throwable = logMessage.getThrowable();
+        if (throwable != null) {
+            out.append(stackTraceOf(throwable));
+        }
+    }
+
+    @Override
+    public void format(LogMessage logMessage, ByteBuffer out) {
+        long millis = logMessage.getTimestampMillis();
+        out.put(prefixFor(millis).bytes);
+        Utf8.putDigits(out, Math.floorMod(millis, 1000L), 3);
+        out.put(THREAD_OPEN);
+        out.put(bytesOf(logMessage.getThreadName()));
+        out.put(THREAD_CLOSE);
+        if (logMessage.getScope() != null) {
+            // Scope names are usually per request, so they are not worth caching.
+            out.put((byte) '[');
+            Utf8.encode(logMessage.getScope(), out);
+            out.put(THREAD_CLOSE);
+        }
+        putContext(logMessage, out);
+        out.put(LEVEL_BYTES[logMessage.getLoglevel().ordinal()]);
+        out.put(LOGGER_SEPARATOR);
+        out.put(bytesOf(logMessage.getLoggerName()));
+        out.put(MESSAGE_SEPARATOR);
+
+        if (logMessage.getMessageSupplier() == null && logMessage.getArgumentCount() > 0) {
+            StringBuilder scratch = SCRATCH.get();
+            scratch.setLength(0);
+            appendMessage(logMessage, scratch);
+            Utf8.encode(scratch, out);
+            if (scratch.capacity() > SCRATCH_RETAIN_LIMIT) {
+                SCRATCH.remove();
+            }
+        } else {
+            Utf8.encode(String.valueOf(logMessage.getMessage()), out);
+        }
+        out.put((byte) '\n');
+
+        Throwable throwable = logMessage.getThrowable();
+        if (throwable != null) {
+            Utf8.encode(stackTraceOf(throwable), out);
+        }
+    }
+
+    private void appendContext(LogMessage logMessage, StringBuilder out) {
+        if (contextKeys.length == 0) {
+            return;
+        }
+        ContextMap context = logMessage.getContext();
+        boolean first = true;
+        for (String key : contextKeys) {
+            String value = context.get(key);
+            if (value != null) {
+                out.append(first ? "{" : ", ").append(key).append('=').append(value);
+                first = false;
+            }
+        }
+        if (!first) {
+            out.append("} ");
+        }
+    }
+
+    private void putContext(LogMessage logMessage, ByteBuffer out) {
+        if (contextKeys.length == 0) {
+            return;
+        }
+        ContextMap context = logMessage.getContext();
+        boolean first = true;
+        for (int i = 0; i < contextKeys.length; i++) {
+            String value = context.get(contextKeys[i]);
+            if (value != null) {
+                if (first) {
+                    out.put((byte) '{');
+                } else {
+                    out.put(CONTEXT_SEPARATOR);
+                }
+                out.put(contextKeyBytes[i]);
+                Utf8.encode(value, out);
+                first = false;
+            }
+        }
+        if (!first) {
+            out.put(CONTEXT_CLOSE);
+        }
+    }
+
+    private void appendMessage(LogMessage logMessage, StringBuilder out) {
+        if (logMessage.getMessageSupplier() == null && logMessage.getArgumentCount() > 0) {
+            MessageFormatter.formatTo(out, logMessage.getMessagePattern(),
+                    logMessage.getArguments(), logMessage.getArgumentCount());
+        } else {
+            out.append(logMessage.getMessage());
+        }
+    }
+
+    private SecondPrefix prefixFor(long millis) {
+        long epochSecond = Math.floorDiv(millis, 1000L);
+        SecondPrefix prefix = secondPrefix;
+        if (prefix.epochSecond != epochSecond) {
+            String text = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone).format(SECOND_FORMATTER);
+            prefix = new SecondPrefix(epochSecond, text, text.getBytes(StandardCharsets.US_ASCII));
+            secondPrefix = prefix;
+        }
+        return prefix;
+    }
+
+    private byte[] bytesOf(String name) {
+        String key = String.valueOf(name);
+        byte[] bytes = nameBytes.get(key);
+        if (bytes == null) {
+            bytes = key.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.size() < NAME_CACHE_LIMIT) {
+                nameBytes.put(key, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    private static String stackTraceOf(Throwable throwable) {
+        StringWriter stackTrace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(stackTrace));
+        return stackTrace.toString();
+    }
+
+    private record SecondPrefix(long epochSecond, String text, byte[] bytes) {
     }
 }
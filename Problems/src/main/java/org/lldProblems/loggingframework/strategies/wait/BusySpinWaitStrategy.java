@@ -0,0 +1,12 @@
+package org.lldProblems.loggingframework.strategies.wait;
+
+/**
+ * Lowest latency, but burns a full core while idle.
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public void idle(int attempt) {
+        Thread.onSpinWait();
+    }
+}
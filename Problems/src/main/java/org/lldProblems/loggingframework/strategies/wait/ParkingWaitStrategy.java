@@ -0,0 +1,32 @@
+package org.lldProblems.loggingframework.strategies.wait;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins briefly, then parks for a fixed interval. Cheapest on CPU, adds up to
+ * one park interval of latency after an idle period.
+ */
+public class ParkingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    private final long parkNanos;
+
+    public ParkingWaitStrategy() {
+        this(100, TimeUnit.MICROSECONDS);
+    }
+
+    public ParkingWaitStrategy(long parkTime, TimeUnit unit) {
+        this.parkNanos = unit.toNanos(parkTime);
+    }
+
+    @Override
+    public void idle(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.lldProblems.loggingframework.strategies.wait;
+
+/**
+ * Decides how a thread backs off while the ring buffer has nothing to consume
+ * (consumer side) or no free slot to claim (producer side).
+ */
+public interface WaitStrategy {
+
+    /**
+     * @param attempt number of consecutive idle rounds so far, reset to 0 once work shows up.
+     */
+    void idle(int attempt);
+}
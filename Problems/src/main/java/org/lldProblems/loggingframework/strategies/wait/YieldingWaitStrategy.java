@@ -0,0 +1,18 @@
+package org.lldProblems.loggingframework.strategies.wait;
+
+/**
+ * Spins for a short while, then gives the core away with {@link Thread#yield()}.
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public void idle(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+}
@@ -9,17 +9,17 @@ import org.lldProblems.parkinglot.strategy.parking.BestFitStrategy;
 import org.lldProblems.parkinglot.strategy.parking.ParkingStrategy;
 import org.lldProblems.parkinglot.vehicle.Vehicle;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ParkingLot {
 
     private static ParkingLot instance;
 
-    private final List<ParkingFloor> floors = new ArrayList<>();
+    private final List<ParkingFloor> floors = new CopyOnWriteArrayList<>();
     private final Map<String, ParkingTicket> activeTickets;
     private FeeStrategy feeStrategy;
     private ParkingStrategy parkingStrategy;
@@ -46,12 +46,19 @@ public class ParkingLot {
         this.feeStrategy = feeStrategy;
     }
 
+    public void setParkingStrategy(ParkingStrategy parkingStrategy){
+        this.parkingStrategy = parkingStrategy;
+    }
+
+    /**
+     * The strategy hands back a spot already claimed for the vehicle, so concurrent gates
+     * can never be given the same spot.
+     */
     public Optional<ParkingTicket> parkVehicle(Vehicle vehicle){
         Optional<ParkingSpot> availableSpot = parkingStrategy.findSpot(floors,vehicle);
 
         if(availableSpot.isPresent()){
             ParkingSpot spot = availableSpot.get();
-            spot.parkVehicle(vehicle);
             ParkingTicket ticket = new ParkingTicket(vehicle,spot);
             activeTickets.put(vehicle.getLicenceNumber(), ticket);
             System.out.printf("%s parked at %s. Ticket: %s\n", vehicle.getLicenceNumber(), spot.getSpotId(), ticket.getTicketId());
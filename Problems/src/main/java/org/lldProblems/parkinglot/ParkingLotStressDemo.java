@@ -0,0 +1,130 @@
+package org.lldProblems.parkinglot;
+
+import org.lldProblems.parkinglot.entities.ParkingFloor;
+import org.lldProblems.parkinglot.entities.ParkingSpot;
+import org.lldProblems.parkinglot.strategy.parking.BestFitStrategy;
+import org.lldProblems.parkinglot.strategy.parking.FarthestFirstStrategy;
+import org.lldProblems.parkinglot.strategy.parking.NearestFirstStrategy;
+import org.lldProblems.parkinglot.strategy.parking.ParkingStrategy;
+import org.lldProblems.parkinglot.vehicle.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hundreds of gates park and unpark against a lot with far fewer spots, so most attempts race
+ * for the same spots. Every gate checks that it is alone on the spot it was given and that the
+ * spot holds its vehicle; any other outcome counts as a double booking. The gates call the
+ * strategy directly, as {@link ParkingLot#parkVehicle} does, because the lot prints every ticket.
+ * <p>
+ * The first run finds a spot and parks it in two steps without checking that the park took,
+ * as the lot used to, for comparison. The other runs throw if a spot was double-booked or the
+ * floors' free counts don't add up to every spot once all gates are done.
+ */
+public class ParkingLotStressDemo {
+    private static final int FLOORS = 3;
+    private static final int SPOTS_PER_SIZE_PER_FLOOR = 20;
+    private static final int GATES = 300;
+    private static final int ATTEMPTS_PER_GATE = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        ParkingStrategy checkThenPark = (floors, vehicle) -> {
+            for (ParkingFloor floor : floors) {
+                Optional<ParkingSpot> spot = floor.findAvailableSpot(vehicle);
+                if (spot.isPresent()) {
+                    spot.get().parkVehicle(vehicle);
+                    return spot;
+                }
+            }
+            return Optional.empty();
+        };
+
+        System.out.printf("%d gates x %d attempts, %d spots on %d floors%n", GATES, ATTEMPTS_PER_GATE,
+                FLOORS * SPOTS_PER_SIZE_PER_FLOOR * VehicleSize.values().length, FLOORS);
+        run("check-then-park", checkThenPark, false);
+        run("NearestFirst", new NearestFirstStrategy(), true);
+        run("FarthestFirst", new FarthestFirstStrategy(), true);
+        run("BestFit", new BestFitStrategy(), true);
+    }
+
+    private static void run(String name, ParkingStrategy strategy, boolean verify) throws InterruptedException {
+        List<ParkingFloor> floors = new ArrayList<>();
+        Map<ParkingSpot, AtomicInteger> holders = new HashMap<>();
+        for (int f = 1; f <= FLOORS; f++) {
+            ParkingFloor floor = new ParkingFloor(f);
+            for (VehicleSize size : VehicleSize.values()) {
+                for (int i = 0; i < SPOTS_PER_SIZE_PER_FLOOR; i++) {
+                    ParkingSpot spot = new ParkingSpot("F" + f + "-" + size.name().charAt(0) + i, size);
+                    floor.addSpot(spot);
+                    holders.put(spot, new AtomicInteger());
+                }
+            }
+            floors.add(floor);
+        }
+
+        LongAdder parked = new LongAdder();
+        LongAdder full = new LongAdder();
+        LongAdder doubleBookings = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(GATES);
+        for (int g = 0; g < GATES; g++) {
+            Vehicle vehicle = switch (g % 3) {
+                case 0 -> new Bike("B-" + g);
+                case 1 -> new Car("C-" + g);
+                default -> new Truck("T-" + g);
+            };
+            Thread gate = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_GATE; i++) {
+                        Optional<ParkingSpot> claimed = strategy.findSpot(floors, vehicle);
+                        if (claimed.isEmpty()) {
+                            full.increment();
+                            Thread.yield();
+                            continue;
+                        }
+                        ParkingSpot spot = claimed.get();
+                        AtomicInteger holder = holders.get(spot);
+                        if (holder.incrementAndGet() > 1 || spot.getVehicle() != vehicle) {
+                            doubleBookings.increment();
+                        }
+                        Thread.yield();
+                        holder.decrementAndGet();
+                        spot.unParkVehicle();
+                        parked.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "gate-" + g);
+            gate.start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        int free = 0;
+        for (ParkingFloor floor : floors) {
+            for (VehicleSize size : VehicleSize.values()) {
+                free += floor.getAvailableCount(size);
+            }
+        }
+        System.out.printf("%-16s parked %,9d  lot full %,9d  double bookings %,6d  %,10.0f parks/s  free after %d%n",
+                name, parked.sum(), full.sum(), doubleBookings.sum(),
+                parked.sum() / (elapsedNanos / 1e9), free);
+        if (verify && (doubleBookings.sum() > 0 || free != holders.size())) {
+            throw new IllegalStateException(name + " double-booked " + doubleBookings.sum()
+                    + " times and left " + free + " of " + holders.size() + " spots free");
+        }
+    }
+}
@@ -5,38 +5,120 @@ import org.lldProblems.parkinglot.vehicle.VehicleSize;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Keeps a queue of free spots and a free count per {@link VehicleSize}, updated by the spots
+ * themselves when they are taken or freed. Taken spots are not removed from the queue right
+ * away; {@link #findAvailableSpot} and {@link #claimSpot} drop them when they find them at the
+ * head, so finding a spot and showing availability don't depend on the number of spots and
+ * take no lock.
+ */
 public class ParkingFloor {
     private final Map<String,ParkingSpot> spots;
     private final int floorNumber ;
+    private final Map<VehicleSize, Queue<ParkingSpot>> freeSpots = new EnumMap<>(VehicleSize.class);
+    private final Map<VehicleSize, AtomicInteger> freeCounts = new EnumMap<>(VehicleSize.class);
 
 
     public ParkingFloor( int floorNumber) {
         this.spots = new ConcurrentHashMap<>();
         this.floorNumber = floorNumber;
+        for (VehicleSize size : VehicleSize.values()) {
+            freeSpots.put(size, new ConcurrentLinkedQueue<>());
+            freeCounts.put(size, new AtomicInteger());
+        }
     }
 
     public void addSpot(ParkingSpot spot){
-        spots.put(spot.getSpotId(),spot);
+        if (spots.putIfAbsent(spot.getSpotId(), spot) != null) {
+            return;
+        }
+        // Under the spot's lock, so a concurrent park or unpark sees the floor and the count together.
+        synchronized (spot) {
+            spot.setFloor(this);
+            if (spot.isAvailable()) {
+                freeCounts.get(spot.getSpotSize()).incrementAndGet();
+                enqueue(spot);
+            }
+        }
+    }
+
+    /**
+     * A spot only fits a vehicle of its own size, so only that size's queue is looked at.
+     */
+    public Optional<ParkingSpot> findAvailableSpot(Vehicle vehicle){
+        Queue<ParkingSpot> queue = freeSpots.get(vehicle.getSize());
+        ParkingSpot spot;
+        while ((spot = queue.peek()) != null) {
+            if (spot.isAvailable()) {
+                return Optional.of(spot);
+            }
+            if (queue.remove(spot)) {
+                dropped(spot);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes free spots off the queue for the vehicle's size until one is claimed for it. Each
+     * caller gets a different spot, so concurrent gates don't race for the head of the queue;
+     * a spot that was taken meanwhile is dropped and the next one tried.
+     */
+    public Optional<ParkingSpot> claimSpot(Vehicle vehicle){
+        Queue<ParkingSpot> queue = freeSpots.get(vehicle.getSize());
+        ParkingSpot spot;
+        while ((spot = queue.poll()) != null) {
+            spot.queued.set(false);
+            if (spot.tryClaim(vehicle)) {
+                return Optional.of(spot);
+            }
+            dropped(spot);
+        }
+        return Optional.empty();
+    }
+
+    public int getAvailableCount(VehicleSize size) {
+        return freeCounts.get(size).get();
     }
 
-    public synchronized Optional<ParkingSpot> findAvailableSpot(Vehicle vehicle){
-        return spots.values().stream()
-                .filter(spot -> !spot.isOccupied() && spot.canFitVehicle(vehicle))
-                .sorted(Comparator.comparing(ParkingSpot::getSpotSize))
-                .findFirst();
+    public int getFloorNumber() {
+        return floorNumber;
     }
 
     public void displayAvailability(){
         System.out.printf("--- Floor %d Availability ---\n", floorNumber);
 
-        Map<VehicleSize, Long> availableCounts = spots.values().stream()
-                .filter(spot -> !spot.isOccupied())
-                .collect(Collectors.groupingBy(ParkingSpot::getSpotSize,Collectors.counting()));
-
         for (VehicleSize size: VehicleSize.values()){
-            System.out.printf("  %s spots: %d\n", size, availableCounts.getOrDefault(size, 0L));
+            System.out.printf("  %s spots: %d\n", size, getAvailableCount(size));
+        }
+    }
+
+    void spotTaken(ParkingSpot spot) {
+        freeCounts.get(spot.getSpotSize()).decrementAndGet();
+    }
+
+    void spotFreed(ParkingSpot spot) {
+        freeCounts.get(spot.getSpotSize()).incrementAndGet();
+        enqueue(spot);
+    }
+
+    private void enqueue(ParkingSpot spot) {
+        if (spot.queued.compareAndSet(false, true)) {
+            freeSpots.get(spot.getSpotSize()).offer(spot);
+        }
+    }
+
+    /**
+     * The flag is cleared before the spot is checked again, so a spot freed in between is
+     * queued either by {@link #spotFreed} or here.
+     */
+    private void dropped(ParkingSpot spot) {
+        spot.queued.set(false);
+        if (spot.isAvailable()) {
+            enqueue(spot);
         }
     }
 
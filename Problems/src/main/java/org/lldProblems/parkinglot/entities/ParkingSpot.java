@@ -3,11 +3,23 @@ package org.lldProblems.parkinglot.entities;
 import org.lldProblems.parkinglot.vehicle.Vehicle;
 import org.lldProblems.parkinglot.vehicle.VehicleSize;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The parked vehicle is the spot's only occupancy state: null means free. Claiming is a
+ * compare-and-set from null, so of several gates racing for the same spot exactly one wins.
+ * Claims and frees run under the spot's monitor together with the floor's count update, so
+ * {@link ParkingFloor#addSpot} sees each one either before or after; reads take no lock.
+ */
 public class ParkingSpot {
     private final String spotId;
-    private Vehicle parkedvehicle;
-    private boolean isOccupied;
+    private final AtomicReference<Vehicle> parkedvehicle = new AtomicReference<>();
     private final VehicleSize spotSize;
+    // Guarded by this spot's monitor.
+    private ParkingFloor floor;
+    // Whether the spot is in its floor's free queue; see ParkingFloor.
+    final AtomicBoolean queued = new AtomicBoolean();
 
 
     public ParkingSpot(String spotId, VehicleSize spotSize) {
@@ -15,18 +27,38 @@ public class ParkingSpot {
         this.spotSize = spotSize;
     }
 
-    public synchronized void parkVehicle(Vehicle vehicle){
-        this.parkedvehicle=vehicle;
-        this.isOccupied=true;
+    /**
+     * Parks {@code vehicle} here if the spot is free and fits it.
+     *
+     * @return false if another vehicle got the spot first or the vehicle does not fit
+     */
+    public synchronized boolean tryClaim(Vehicle vehicle){
+        if (vehicle.getSize() != spotSize || !parkedvehicle.compareAndSet(null, vehicle)) {
+            return false;
+        }
+        if (floor != null) {
+            floor.spotTaken(this);
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #tryClaim}.
+     *
+     * @return false if the spot was taken or does not fit the vehicle
+     */
+    public boolean parkVehicle(Vehicle vehicle){
+        return tryClaim(vehicle);
     }
 
     public synchronized void unParkVehicle(){
-        this.parkedvehicle=null;
-        this.isOccupied=false;
+        if (parkedvehicle.getAndSet(null) != null && floor != null) {
+            floor.spotFreed(this);
+        }
     }
 
     public boolean canFitVehicle(Vehicle vehicle){
-        if(isOccupied) return false;
+        if(isOccupied()) return false;
 
         switch (vehicle.getSize()){
             case SMALL -> {
@@ -44,8 +76,8 @@ public class ParkingSpot {
         }
     }
 
-    public synchronized boolean isAvailable(){
-        return !isOccupied;
+    public boolean isAvailable(){
+        return parkedvehicle.get() == null;
     }
 
     public String getSpotId() {
@@ -53,24 +85,20 @@ public class ParkingSpot {
     }
 
     public Vehicle getVehicle() {
-        return parkedvehicle;
-    }
-
-    public void setVehicle(Vehicle vehicle) {
-        this.parkedvehicle = vehicle;
+        return parkedvehicle.get();
     }
 
     public boolean isOccupied() {
-        return isOccupied;
-    }
-
-    public void setOccupied(boolean occupied) {
-        isOccupied = occupied;
+        return parkedvehicle.get() != null;
     }
 
     public VehicleSize getSpotSize() {
         return spotSize;
     }
 
+    void setFloor(ParkingFloor floor) {
+        this.floor = floor;
+    }
+
 
 }
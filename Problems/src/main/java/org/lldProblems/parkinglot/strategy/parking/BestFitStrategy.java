@@ -9,26 +9,19 @@ import java.util.Optional;
 
 public class BestFitStrategy implements ParkingStrategy{
 
+    /**
+     * A spot only fits a vehicle of its own size, so every free spot is an equally tight fit and
+     * the first floor that has one wins. Claiming per floor gives concurrent gates different spots
+     * instead of having them all race for the same one.
+     */
     @Override
     public Optional<ParkingSpot> findSpot(List<ParkingFloor> floors, Vehicle vehicle) {
-        Optional<ParkingSpot> bestSpot = Optional.empty();
-
-
         for (ParkingFloor floor : floors) {
-            Optional<ParkingSpot> spotOnThisFloor = floor.findAvailableSpot(vehicle);
-
-            if (spotOnThisFloor.isPresent()) {
-                if (bestSpot.isEmpty()) {
-                    // If this is the first spot we've found, it's the best one so far.
-                    bestSpot = spotOnThisFloor;
-                } else {
-                    // A smaller spot size enum ordinal means a tighter fit.
-                    if (spotOnThisFloor.get().getSpotSize().ordinal() < bestSpot.get().getSpotSize().ordinal()) {
-                        bestSpot = spotOnThisFloor;
-                    }
-                }
+            Optional<ParkingSpot> spot = floor.claimSpot(vehicle);
+            if (spot.isPresent()) {
+                return spot;
             }
         }
-        return bestSpot;
+        return Optional.empty();
     }
 }
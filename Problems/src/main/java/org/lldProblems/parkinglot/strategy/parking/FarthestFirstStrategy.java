@@ -15,7 +15,7 @@ public class FarthestFirstStrategy implements ParkingStrategy{
         List<ParkingFloor> reversedFloors = new ArrayList<>(floors);
         Collections.reverse(reversedFloors);
         for (ParkingFloor floor : reversedFloors) {
-            Optional<ParkingSpot> spot = floor.findAvailableSpot(vehicle);
+            Optional<ParkingSpot> spot = floor.claimSpot(vehicle);
             if (spot.isPresent()) {
                 return spot;
             }
@@ -11,7 +11,7 @@ public class NearestFirstStrategy implements ParkingStrategy{
     @Override
     public Optional<ParkingSpot> findSpot(List<ParkingFloor> floors, Vehicle vehicle) {
         for (ParkingFloor floor: floors){
-            Optional<ParkingSpot> spot = floor.findAvailableSpot(vehicle);
+            Optional<ParkingSpot> spot = floor.claimSpot(vehicle);
             if(spot.isPresent()){
                 return spot;
             }
@@ -4,11 +4,15 @@ import org.lldProblems.parkinglot.entities.ParkingFloor;
 import org.lldProblems.parkinglot.entities.ParkingSpot;
 import org.lldProblems.parkinglot.vehicle.Vehicle;
 
-import javax.swing.text.html.Option;
 import java.util.List;
 import java.util.Optional;
 
 public interface ParkingStrategy {
 
+    /**
+     * Picks a spot and claims it for {@code vehicle} with {@link ParkingSpot#tryClaim}; the
+     * returned spot is already occupied by the vehicle. Gates call this concurrently, so an
+     * implementation that loses a spot to another gate tries again.
+     */
     Optional<ParkingSpot> findSpot(List<ParkingFloor> floors, Vehicle vehicle);
 }